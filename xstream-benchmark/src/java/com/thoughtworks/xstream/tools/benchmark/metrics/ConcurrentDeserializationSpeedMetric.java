@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.metrics;
+
+import com.thoughtworks.xstream.tools.benchmark.Metric;
+import com.thoughtworks.xstream.tools.benchmark.Product;
+import com.thoughtworks.xstream.tools.benchmark.Target;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Determines how many objects are deserialized per ms when several threads share one product.
+ * <p>
+ * Each thread deserializes the same data for the given number of iterations. Compare the
+ * throughput at different thread counts to see how a product scales.
+ * </p>
+ *
+ * @see com.thoughtworks.xstream.tools.benchmark.Harness
+ * @see Metric
+ */
+public class ConcurrentDeserializationSpeedMetric implements Metric {
+
+    private final int iterations;
+    private final int threads;
+
+    public ConcurrentDeserializationSpeedMetric(int iterations, int threads) {
+        this.iterations = iterations;
+        this.threads = threads;
+    }
+
+    public double run(final Product product, Target target) throws Exception {
+        return run(product, target.target());
+    }
+
+    /**
+     *@deprecated since 1.3
+     */
+    public double run(final Product product, Object object) throws Exception {
+
+        // Serialize once (because we need something to deserialize).
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        product.serialize(object, output);
+        final byte[] data = output.toByteArray();
+
+        // Deserialize once, to warm up.
+        product.deserialize(new ByteArrayInputStream(data));
+
+        final Exception[] failure = new Exception[1];
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < iterations; j++) {
+                            product.deserialize(new ByteArrayInputStream(data));
+                        }
+                    } catch (Exception e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+        }
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < threads; i++) {
+            workers[i].start();
+        }
+        for (int i = 0; i < threads; i++) {
+            workers[i].join();
+        }
+        long end = System.currentTimeMillis();
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+
+        return (double)iterations * threads / Math.max(1, end - start);
+    }
+
+    public String unit() {
+        return "ops/ms";
+    }
+
+    public boolean biggerIsBetter() {
+        return true;
+    }
+
+    public String toString() {
+        return "Deserialization throughput (" + threads + " thread" + (threads == 1 ? "" : "s") + ", " + iterations + " iteration" + (iterations == 1 ? "" : "s") + " each)";
+    }
+}
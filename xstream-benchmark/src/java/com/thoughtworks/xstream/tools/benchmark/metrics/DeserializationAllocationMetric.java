@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.metrics;
+
+import com.thoughtworks.xstream.tools.benchmark.Metric;
+import com.thoughtworks.xstream.tools.benchmark.Product;
+import com.thoughtworks.xstream.tools.benchmark.Target;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+/**
+ * Determines how many bytes are allocated on average to deserialize an object.
+ * <p>
+ * The allocation is read from the per-thread counter of the HotSpot ThreadMXBean, the metric
+ * fails on JVMs that do not provide it.
+ * </p>
+ *
+ * @see com.thoughtworks.xstream.tools.benchmark.Harness
+ * @see Metric
+ */
+public class DeserializationAllocationMetric implements Metric {
+
+    private final int iterations;
+
+    public DeserializationAllocationMetric(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public double run(Product product, Target target) throws Exception {
+        return run(product, target.target());
+    }
+
+    /**
+     *@deprecated since 1.3
+     */
+    public double run(Product product, Object object) throws Exception {
+        Object threadBean = ManagementFactory.getThreadMXBean();
+        Method allocatedBytes = Class
+            .forName("com.sun.management.ThreadMXBean")
+            .getMethod("getThreadAllocatedBytes", new Class[]{long.class});
+        Object[] threadId = new Object[]{new Long(Thread.currentThread().getId())};
+
+        // Serialize once (because we need something to deserialize).
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        product.serialize(object, output);
+        byte[] data = output.toByteArray();
+
+        // Warm up, so one-time setup (class loading, caches) is not measured.
+        for (int i = 0; i < 100; i++) {
+            product.deserialize(new ByteArrayInputStream(data));
+        }
+
+        long start = ((Long)allocatedBytes.invoke(threadBean, threadId)).longValue();
+        for (int i = 0; i < iterations; i++) {
+            product.deserialize(new ByteArrayInputStream(data));
+        }
+        long end = ((Long)allocatedBytes.invoke(threadBean, threadId)).longValue();
+
+        return (double)(end - start) / iterations;
+    }
+
+    public String unit() {
+        return "bytes";
+    }
+
+    public boolean biggerIsBetter() {
+        return false;
+    }
+
+    public String toString() {
+        return "Deserialization allocation (average of " + iterations + " iteration" + (iterations == 1 ? "" : "s") + ")";
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.targets;
+
+import com.thoughtworks.xstream.tools.benchmark.Target;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An ArrayList of large texts to serialize.
+ * <p>
+ * The texts are mainly plain prose, optionally with some characters that have to be escaped in
+ * XML.
+ * </p>
+ *
+ * @see com.thoughtworks.xstream.tools.benchmark.Harness
+ * @see Target
+ */
+public class TextTarget implements Target {
+
+    private static final String PLAIN = "The quick brown fox jumps over the lazy dog. ";
+    private static final String MARKUP = "Tom & Jerry say \"<hello>\" to Jörg.\n";
+
+    private final List list = new ArrayList();
+    private final boolean markup;
+
+    public TextTarget(int size, int length, boolean markup) {
+        this.markup = markup;
+        for (int i = 0; i < size; i++) {
+            StringBuffer text = new StringBuffer(length + MARKUP.length());
+            while (text.length() < length) {
+                text.append(PLAIN);
+                if (markup && text.length() % 4 == 0) {
+                    text.append(MARKUP);
+                }
+            }
+            list.add(text.toString());
+        }
+    }
+
+    public String toString() {
+        return "List of " + list.size() + " texts" + (markup ? " with markup" : "");
+    }
+
+    public Object target() {
+        return list;
+    }
+
+    public boolean isEqual(Object other) {
+        return list.equals(other);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2008, 2009 XStream Committers.
+ * Copyright (C) 2008, 2009, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,10 +14,13 @@ import com.thoughtworks.xstream.tools.benchmark.Harness;
 import com.thoughtworks.xstream.tools.benchmark.Product;
 import com.thoughtworks.xstream.tools.benchmark.cache.products.AliasedAttributeCache;
 import com.thoughtworks.xstream.tools.benchmark.cache.products.Cache122;
+import com.thoughtworks.xstream.tools.benchmark.cache.products.FullChainCache;
 import com.thoughtworks.xstream.tools.benchmark.cache.products.DefaultImplementationCache;
 import com.thoughtworks.xstream.tools.benchmark.cache.products.NoCache;
 import com.thoughtworks.xstream.tools.benchmark.cache.products.RealClassCache;
 import com.thoughtworks.xstream.tools.benchmark.cache.products.SerializedClassCache;
+import com.thoughtworks.xstream.tools.benchmark.cache.products.SynchronizedConverterLookupCache;
+import com.thoughtworks.xstream.tools.benchmark.metrics.ConcurrentDeserializationSpeedMetric;
 import com.thoughtworks.xstream.tools.benchmark.metrics.DeserializationSpeedMetric;
 import com.thoughtworks.xstream.tools.benchmark.metrics.SerializationSpeedMetric;
 import com.thoughtworks.xstream.tools.benchmark.reporters.TextReporter;
@@ -43,11 +46,13 @@ import java.io.PrintWriter;
 public class CacheBenchmark {
     public static void main(String[] args) {
         int counter = 10000;
+        int threads = 0;
         Product product = null;
         
         Options options = new Options();
         options.addOption("p", "product", true, "Class name of the product to use for benchmark");
         options.addOption("n", true, "Number of repetitions");
+        options.addOption("t", "threads", true, "Maximum number of concurrent threads, measured in powers of two");
         
         Parser parser = new PosixParser();
         try {
@@ -58,6 +63,9 @@ public class CacheBenchmark {
             if (commandLine.hasOption('n')) {
                 counter = Integer.parseInt(commandLine.getOptionValue('n'));
             }
+            if (commandLine.hasOption('t')) {
+                threads = Integer.parseInt(commandLine.getOptionValue('t'));
+            }
         } catch (ParseException e) {
             e.printStackTrace();
         } catch (InstantiationException e) {
@@ -81,10 +89,15 @@ public class CacheBenchmark {
         // });
         harness.addMetric(new SerializationSpeedMetric(counter));
         harness.addMetric(new DeserializationSpeedMetric(counter, false));
+        for (int i = 1; i <= threads; i *= 2) {
+            harness.addMetric(new ConcurrentDeserializationSpeedMetric(counter, i));
+        }
         if (product == null) {
             harness.addProduct(new NoCache());
             harness.addProduct(new Cache122());
             harness.addProduct(new RealClassCache());
+            harness.addProduct(new FullChainCache());
+            harness.addProduct(new SynchronizedConverterLookupCache());
             harness.addProduct(new SerializedClassCache());
             harness.addProduct(new AliasedAttributeCache());
             harness.addProduct(new DefaultImplementationCache());
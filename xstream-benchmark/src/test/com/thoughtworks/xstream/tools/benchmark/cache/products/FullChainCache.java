@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.cache.products;
+
+import com.thoughtworks.xstream.mapper.CachingMapper;
+
+import java.util.List;
+
+
+/**
+ * Uses XStream with the CachingMapper of the current version, caching all lookups of the mapper chain.
+ */
+public class FullChainCache extends XStreamCache {
+
+    protected List getMappers() {
+        List list = super.getMappers();
+        list.add(CachingMapper.class);
+        return list;
+    }
+
+    public String toString() {
+        return "Full Chain Cache";
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.cache.products;
+
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.converters.ConverterRegistry;
+import com.thoughtworks.xstream.core.Caching;
+import com.thoughtworks.xstream.core.util.PrioritizedList;
+import com.thoughtworks.xstream.mapper.CachingMapper;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+
+/**
+ * Uses XStream with the CachingMapper of the current version and the converter lookup of 1.4.5,
+ * which caches the converters in a synchronized map.
+ */
+public class SynchronizedConverterLookupCache extends XStreamCache {
+
+    protected ConverterLookup createConverterLookup() {
+        return new SynchronizedConverterLookup();
+    }
+
+    protected List getMappers() {
+        List list = super.getMappers();
+        list.add(CachingMapper.class);
+        return list;
+    }
+
+    public String toString() {
+        return "Synchronized Converter Lookup";
+    }
+
+    public static class SynchronizedConverterLookup implements ConverterLookup, ConverterRegistry, Caching {
+
+        private final PrioritizedList converters = new PrioritizedList();
+        private transient Map typeToConverterMap = Collections.synchronizedMap(new WeakHashMap());
+
+        public Converter lookupConverterForType(Class type) {
+            Converter cachedConverter = (Converter)typeToConverterMap.get(type);
+            if (cachedConverter != null) {
+                return cachedConverter;
+            }
+            Iterator iterator = converters.iterator();
+            while (iterator.hasNext()) {
+                Converter converter = (Converter)iterator.next();
+                if (converter.canConvert(type)) {
+                    typeToConverterMap.put(type, converter);
+                    return converter;
+                }
+            }
+            throw new ConversionException("No converter specified for " + type);
+        }
+
+        public void registerConverter(Converter converter, int priority) {
+            converters.add(converter, priority);
+            for (Iterator iter = typeToConverterMap.keySet().iterator(); iter.hasNext();) {
+                Class type = (Class)iter.next();
+                if (converter.canConvert(type)) {
+                    iter.remove();
+                }
+            }
+        }
+
+        public void flushCache() {
+            typeToConverterMap.clear();
+            Iterator iterator = converters.iterator();
+            while (iterator.hasNext()) {
+                Converter converter = (Converter)iterator.next();
+                if (converter instanceof Caching) {
+                    ((Caching)converter).flushCache();
+                }
+            }
+        }
+    }
+}
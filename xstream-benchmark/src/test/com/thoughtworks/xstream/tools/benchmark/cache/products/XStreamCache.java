@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2008, 2009, 2013 XStream Committers.
+ * Copyright (C) 2008, 2009, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,6 +13,7 @@ package com.thoughtworks.xstream.tools.benchmark.cache.products;
 import com.thoughtworks.xstream.InitializationException;
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.converters.ConverterRegistry;
 import com.thoughtworks.xstream.core.ClassLoaderReference;
 import com.thoughtworks.xstream.core.DefaultConverterLookup;
 import com.thoughtworks.xstream.core.JVM;
@@ -58,14 +59,18 @@ public abstract class XStreamCache implements Product {
     public XStreamCache() {
         ClassLoaderReference classLoaderReference = new ClassLoaderReference(
             new CompositeClassLoader());
-        DefaultConverterLookup converterLookup = new DefaultConverterLookup();
+        ConverterLookup converterLookup = createConverterLookup();
         xstream = new XStream(
             JVM.newReflectionProvider(), new XppDriver(), classLoaderReference, buildMapper(
-                getMappers(), classLoaderReference, converterLookup), converterLookup, converterLookup);
+                getMappers(), classLoaderReference, converterLookup), converterLookup,
+            (ConverterRegistry)converterLookup);
         xstream.alias("one", One.class);
         xstream.alias("five", Five.class);
         xstream.alias("ser-one", SerializableOne.class);
         xstream.alias("ser-five", SerializableFive.class);
+        if (xstream.getTypeWhitelist() != null) {
+            xstream.getTypeWhitelist().allowPackage(One.class.getPackage().getName());
+        }
     }
 
     public void serialize(Object object, OutputStream output) throws Exception {
@@ -76,6 +81,13 @@ public abstract class XStreamCache implements Product {
         return xstream.fromXML(input);
     }
 
+    /**
+     * Create the converter lookup, it must also be the converter registry.
+     */
+    protected ConverterLookup createConverterLookup() {
+        return new DefaultConverterLookup();
+    }
+
     protected List getMappers() {
         List mappers = new ArrayList();
         mappers.add(DefaultMapper.class);
@@ -106,7 +118,7 @@ public abstract class XStreamCache implements Product {
     private Mapper buildMapper(List mappers, ClassLoaderReference classLoaderReference,
         ConverterLookup converterLookup) {
         final Object[] arguments = new Object[]{
-            new TypedNull(Mapper.class), converterLookup, classLoaderReference,
+            new TypedNull(Mapper.class), converterLookup, converterLookup, classLoaderReference,
             JVM.newReflectionProvider()};
         for (final Iterator iter = mappers.iterator(); iter.hasNext();) {
             final Class mapperType = (Class)iter.next();
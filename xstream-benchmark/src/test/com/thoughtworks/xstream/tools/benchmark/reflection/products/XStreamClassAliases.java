@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007, 2009 XStream Committers.
+ * Copyright (C) 2007, 2009, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -33,6 +33,9 @@ public class XStreamClassAliases implements Product {
 
     public XStreamClassAliases() {
         this.xstream = new XStream(new XppDriver());
+        if (xstream.getTypeWhitelist() != null) {
+            xstream.getTypeWhitelist().allowPackage(A100Parents.class.getPackage().getName());
+        }
         for(int i = 0; i < 100; ++i) {
             String no = "00" + i;
             no = no.substring(no.length() - 3);
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007, 2009 XStream Committers.
+ * Copyright (C) 2007, 2009, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -35,6 +35,9 @@ public class XStreamFieldAliases implements Product {
 
     public XStreamFieldAliases() {
         this.xstream = new XStream(new XppDriver());
+        if (xstream.getTypeWhitelist() != null) {
+            xstream.getTypeWhitelist().allowPackage(A100Fields.class.getPackage().getName());
+        }
         try {
             Class clsFields = Class.forName(A100Fields.class.getName());
             for (int i = 0; i < 100; ++i) {
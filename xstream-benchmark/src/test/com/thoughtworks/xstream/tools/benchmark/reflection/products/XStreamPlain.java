@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007, 2009 XStream Committers.
+ * Copyright (C) 2007, 2009, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,6 +13,7 @@ package com.thoughtworks.xstream.tools.benchmark.reflection.products;
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.io.xml.XppDriver;
 import com.thoughtworks.xstream.tools.benchmark.Product;
+import com.thoughtworks.xstream.tools.benchmark.model.A100Fields;
 
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -32,6 +33,9 @@ public class XStreamPlain implements Product {
 
     public XStreamPlain() {
         this.xstream = new XStream(new XppDriver());
+        if (xstream.getTypeWhitelist() != null) {
+            xstream.getTypeWhitelist().allowPackage(A100Fields.class.getPackage().getName());
+        }
     }
 
     public void serialize(Object object, OutputStream output) throws Exception {
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.text;
+
+import com.thoughtworks.xstream.tools.benchmark.Harness;
+import com.thoughtworks.xstream.tools.benchmark.metrics.SerializationSpeedMetric;
+import com.thoughtworks.xstream.tools.benchmark.reporters.TextReporter;
+import com.thoughtworks.xstream.tools.benchmark.targets.TextTarget;
+import com.thoughtworks.xstream.tools.benchmark.text.products.BulkEscaping;
+import com.thoughtworks.xstream.tools.benchmark.text.products.CharacterEscaping;
+
+import java.io.PrintWriter;
+
+
+/**
+ * Main application to run harness for the benchmark of text-heavy objects. Both products write
+ * through the same kind of Writer, so only the escaping differs.
+ */
+public class TextBenchmark {
+    public static void main(String[] args) {
+        int counter = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+
+        Harness harness = new Harness();
+        harness.addMetric(new SerializationSpeedMetric(counter));
+        harness.addProduct(new CharacterEscaping());
+        harness.addProduct(new BulkEscaping());
+        harness.addTarget(new TextTarget(100, 10000, false));
+        harness.addTarget(new TextTarget(100, 10000, true));
+        harness.run(new TextReporter(new PrintWriter(System.out, true)));
+        System.out.println("Done.");
+    }
+}
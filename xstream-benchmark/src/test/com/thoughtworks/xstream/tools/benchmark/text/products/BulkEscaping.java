@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.text.products;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.xml.PrettyPrintWriter;
+import com.thoughtworks.xstream.io.xml.XppDriver;
+import com.thoughtworks.xstream.tools.benchmark.Product;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+
+
+/**
+ * Uses XStream with the current PrettyPrintWriter that copies runs of plain text in bulk. The
+ * writer encodes with an OutputStreamWriter as {@link CharacterEscaping} does.
+ */
+public class BulkEscaping implements Product {
+
+    private final XStream xstream = new XStream(new XppDriver());
+
+    public void serialize(Object object, OutputStream output) throws Exception {
+        PrettyPrintWriter writer = new PrettyPrintWriter(new OutputStreamWriter(output));
+        xstream.marshal(object, writer);
+        writer.flush();
+    }
+
+    public Object deserialize(InputStream input) throws Exception {
+        return xstream.fromXML(input);
+    }
+
+    public String toString() {
+        return "Bulk Escaping";
+    }
+}
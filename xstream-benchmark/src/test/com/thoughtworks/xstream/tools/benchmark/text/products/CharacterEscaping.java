@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.text.products;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.core.util.QuickWriter;
+import com.thoughtworks.xstream.io.xml.PrettyPrintWriter;
+import com.thoughtworks.xstream.io.xml.XppDriver;
+import com.thoughtworks.xstream.tools.benchmark.Product;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+
+
+/**
+ * Uses XStream with a PrettyPrintWriter that escapes the text character by character as in
+ * version 1.4.5.
+ */
+public class CharacterEscaping implements Product {
+
+    private final XStream xstream = new XStream(new XppDriver());
+
+    public void serialize(Object object, OutputStream output) throws Exception {
+        PrettyPrintWriter writer = new CharacterEscapingWriter(new OutputStreamWriter(output));
+        xstream.marshal(object, writer);
+        writer.flush();
+    }
+
+    public Object deserialize(InputStream input) throws Exception {
+        return xstream.fromXML(input);
+    }
+
+    public String toString() {
+        return "Character Escaping";
+    }
+
+    public static class CharacterEscapingWriter extends PrettyPrintWriter {
+
+        public CharacterEscapingWriter(OutputStreamWriter writer) {
+            super(writer);
+        }
+
+        protected void writeAttributeValue(QuickWriter writer, String text) {
+            writeText(writer, text, true);
+        }
+
+        protected void writeText(QuickWriter writer, String text) {
+            writeText(writer, text, false);
+        }
+
+        private void writeText(QuickWriter writer, String text, boolean isAttribute) {
+            int length = text.length();
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                case '\0':
+                    writer.write("&#x0;");
+                    break;
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                case '\'':
+                    writer.write("&apos;");
+                    break;
+                case '\r':
+                    writer.write("&#xd;");
+                    break;
+                case '\t':
+                case '\n':
+                    if (!isAttribute) {
+                        writer.write(c);
+                        break;
+                    }
+                default:
+                    if (Character.isDefined(c) && !Character.isISOControl(c)) {
+                        writer.write(c);
+                    } else {
+                        writer.write("&#x");
+                        writer.write(Integer.toHexString(c));
+                        writer.write(';');
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.whitelist;
+
+import com.thoughtworks.xstream.tools.benchmark.Harness;
+import com.thoughtworks.xstream.tools.benchmark.metrics.DeserializationAllocationMetric;
+import com.thoughtworks.xstream.tools.benchmark.metrics.DeserializationSpeedMetric;
+import com.thoughtworks.xstream.tools.benchmark.reporters.TextReporter;
+import com.thoughtworks.xstream.tools.benchmark.targets.BasicTarget;
+import com.thoughtworks.xstream.tools.benchmark.targets.ReflectionTarget;
+import com.thoughtworks.xstream.tools.benchmark.targets.SerializableTarget;
+import com.thoughtworks.xstream.tools.benchmark.whitelist.products.AllowAll;
+import com.thoughtworks.xstream.tools.benchmark.whitelist.products.AllowedPattern;
+import com.thoughtworks.xstream.tools.benchmark.whitelist.products.AllowedTypes;
+
+import java.io.PrintWriter;
+
+
+/**
+ * Main application to run harness for the white-list benchmark.
+ * <p>
+ * With logging below trace level the allocation of the white-list products should not exceed
+ * the one of the product allowing all types, i.e. type checks and their logging guards must
+ * not allocate.
+ * </p>
+ */
+public class WhitelistBenchmark {
+    public static void main(String[] args) {
+        int counter = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+        Harness harness = new Harness();
+        harness.addMetric(new DeserializationSpeedMetric(counter, true));
+        harness.addMetric(new DeserializationAllocationMetric(counter));
+        harness.addProduct(new AllowAll());
+        harness.addProduct(new AllowedTypes());
+        harness.addProduct(new AllowedPattern());
+        harness.addTarget(new BasicTarget());
+        harness.addTarget(new ReflectionTarget());
+        harness.addTarget(new SerializableTarget());
+        harness.run(new TextReporter(new PrintWriter(System.out, true)));
+        System.out.println("Done.");
+    }
+}
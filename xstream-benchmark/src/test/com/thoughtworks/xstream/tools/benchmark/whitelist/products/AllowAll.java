@@ -0,0 +1,25 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.whitelist.products;
+
+import com.thoughtworks.xstream.whitelist.TypeWhitelist;
+
+/**
+ * White-list that allows all types, the baseline without any type checks.
+ */
+public class AllowAll extends XStreamWhitelist {
+
+    public AllowAll() {
+        super(TypeWhitelist.allowAllProperty, "true");
+    }
+
+    public String toString() {
+        return "White-list allowing all";
+    }
+}
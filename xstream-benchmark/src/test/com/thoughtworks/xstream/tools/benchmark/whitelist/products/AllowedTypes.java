@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.whitelist.products;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.tools.benchmark.model.Five;
+import com.thoughtworks.xstream.tools.benchmark.model.One;
+import com.thoughtworks.xstream.tools.benchmark.model.SerializableFive;
+import com.thoughtworks.xstream.tools.benchmark.model.SerializableOne;
+
+/**
+ * White-list allowing the model types by their aliases.
+ */
+public class AllowedTypes extends XStreamWhitelist {
+
+    public AllowedTypes() {
+        super(null, null);
+    }
+
+    protected void setUp(XStream xstream) {
+        xstream.alias("one", One.class);
+        xstream.alias("five", Five.class);
+        xstream.alias("ser-one", SerializableOne.class);
+        xstream.alias("ser-five", SerializableFive.class);
+    }
+
+    public String toString() {
+        return "White-list with allowed types";
+    }
+}
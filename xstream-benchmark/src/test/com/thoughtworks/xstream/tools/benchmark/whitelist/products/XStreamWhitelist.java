@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.tools.benchmark.whitelist.products;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.xml.XppDriver;
+import com.thoughtworks.xstream.tools.benchmark.Product;
+import com.thoughtworks.xstream.whitelist.SystemProperty;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Uses XStream with the XPP driver and the white-list forced on, configured by a system
+ * property which is only set while the instance is created.
+ *
+ * @see com.thoughtworks.xstream.tools.benchmark.Harness
+ * @see Product
+ */
+public abstract class XStreamWhitelist implements Product {
+
+    private final XStream xstream;
+
+    protected XStreamWhitelist(SystemProperty property, String value) {
+        XStream.whitelistForceProperty.set(Boolean.TRUE);
+        if (property != null) {
+            property.set(value);
+        }
+        try {
+            xstream = new XStream(new XppDriver());
+        } finally {
+            if (property != null) {
+                property.remove();
+            }
+            XStream.whitelistForceProperty.remove();
+        }
+        setUp(xstream);
+    }
+
+    protected void setUp(XStream xstream) {
+    }
+
+    public void serialize(Object object, OutputStream output) throws Exception {
+        xstream.toXML(object, output);
+    }
+
+    public Object deserialize(InputStream input) throws Exception {
+        return xstream.fromXML(input);
+    }
+}
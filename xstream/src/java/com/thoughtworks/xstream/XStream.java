@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -118,13 +118,16 @@ import com.thoughtworks.xstream.converters.reflection.ExternalizableConverter;
 import com.thoughtworks.xstream.converters.reflection.ReflectionConverter;
 import com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
 import com.thoughtworks.xstream.converters.reflection.SerializableConverter;
+import com.thoughtworks.xstream.core.Caching;
 import com.thoughtworks.xstream.core.ClassLoaderReference;
 import com.thoughtworks.xstream.core.DefaultConverterLookup;
 import com.thoughtworks.xstream.core.JVM;
 import com.thoughtworks.xstream.core.MapBackedDataHolder;
 import com.thoughtworks.xstream.core.ReferenceByIdMarshallingStrategy;
+import com.thoughtworks.xstream.core.ReferenceByOrdinalMarshallingStrategy;
 import com.thoughtworks.xstream.core.ReferenceByXPathMarshallingStrategy;
 import com.thoughtworks.xstream.core.TreeMarshallingStrategy;
+import com.thoughtworks.xstream.core.util.ClassValueCache;
 import com.thoughtworks.xstream.core.util.CompositeClassLoader;
 import com.thoughtworks.xstream.core.util.CustomObjectInputStream;
 import com.thoughtworks.xstream.core.util.CustomObjectOutputStream;
@@ -283,6 +286,12 @@ import org.slf4j.LoggerFactory;
  * hand-written XML, this is easier to work with.</td>
  * </tr>
  * <tr>
+ * <td><code>xstream.setMode(XStream.ORDINAL_REFERENCES);</code></td>
+ * <td>Uses the ordinal of the first occurrence of an object as ID to signify duplicate references. The
+ * XML is the same as with ID references and default IDs, but the paths of the elements are not tracked and
+ * IDs must be numbers.</td>
+ * </tr>
+ * <tr>
  * <td><code>xstream.setMode(XStream.NO_REFERENCES);</code></td>
  * <td>This disables object graph support and treats the object structure like a tree. Duplicate
  * references are treated as two separate objects and circular references cause an exception. This
@@ -310,7 +319,7 @@ import org.slf4j.LoggerFactory;
  */
 public class XStream {
 
-    private static Logger log = LoggerFactory.getLogger(XStream.class);
+    private static final Logger log = LoggerFactory.getLogger(XStream.class);
 
     // log version and white-list support early for marking logs with patched implementation
     static {
@@ -339,6 +348,7 @@ public class XStream {
     private ImplicitCollectionMapper implicitCollectionMapper;
     private LocalConversionMapper localConversionMapper;
     private AnnotationConfiguration annotationConfiguration;
+    private CachingMapper cachingMapper;
 
     public static final int NO_REFERENCES = 1001;
     public static final int ID_REFERENCES = 1002;
@@ -346,6 +356,10 @@ public class XStream {
     public static final int XPATH_ABSOLUTE_REFERENCES = 1004;
     public static final int SINGLE_NODE_XPATH_RELATIVE_REFERENCES = 1005;
     public static final int SINGLE_NODE_XPATH_ABSOLUTE_REFERENCES = 1006;
+    /**
+     * @since 1.4.6
+     */
+    public static final int ORDINAL_REFERENCES = 1007;
 
     public static final int PRIORITY_VERY_HIGH = 10000;
     public static final int PRIORITY_NORMAL = 0;
@@ -571,11 +585,72 @@ public class XStream {
         ReflectionProvider reflectionProvider, HierarchicalStreamDriver driver,
         ClassLoaderReference classLoaderReference, Mapper mapper, ConverterLookup converterLookup,
         ConverterRegistry converterRegistry) {
+        this(reflectionProvider, driver, classLoaderReference, mapper, converterLookup, converterRegistry, null);
+    }
+
+    /**
+     * Constructs an XStream with a special {@link HierarchicalStreamDriver} on behalf of an
+     * explicitly named creator.
+     * <p>
+     * The creator is checked against the trusted types to decide if the white-list is enabled,
+     * instead of detecting the calling class from the stack.
+     * </p>
+     * 
+     * @param hierarchicalStreamDriver the driver instance
+     * @param creator the type creating this instance
+     * @throws InitializationException in case of an initialization problem
+     * @see #whitelistTrustedProperty
+     */
+    public XStream(HierarchicalStreamDriver hierarchicalStreamDriver, Class creator) {
+        this(
+            null, hierarchicalStreamDriver, new ClassLoaderReference(new CompositeClassLoader()),
+            null, new DefaultConverterLookup(), creator);
+    }
 
-        log.trace("Created", new Throwable("XSTREAM-CREATE-MARKER"));
+    private XStream(
+        ReflectionProvider reflectionProvider, HierarchicalStreamDriver driver,
+        ClassLoaderReference classLoader, Mapper mapper, DefaultConverterLookup defaultConverterLookup,
+        Class creator) {
+        this(
+            reflectionProvider, driver, classLoader, mapper, defaultConverterLookup,
+            defaultConverterLookup, creator);
+    }
+
+    /**
+     * Constructs an XStream with a special {@link HierarchicalStreamDriver},
+     * {@link ReflectionProvider}, a prepared {@link Mapper} chain, the
+     * {@link ClassLoaderReference} and an own {@link ConverterLookup} and
+     * {@link ConverterRegistry} on behalf of an explicitly named creator.
+     * <p>
+     * The creator is checked against the trusted types to decide if the white-list is enabled.
+     * Passing the creator avoids detecting the calling class from the stack.
+     * </p>
+     * 
+     * @param reflectionProvider the reflection provider to use or <em>null</em> for best
+     *            matching Provider
+     * @param driver the driver instance
+     * @param classLoaderReference the reference to the {@link ClassLoader} to use
+     * @param mapper the instance with the {@link Mapper} chain or <em>null</em> for the default
+     *            chain
+     * @param converterLookup the instance that is used to lookup the converters
+     * @param converterRegistry an instance to manage the converter instances or <em>null</em>
+     *            to prevent any further registry (including annotations)
+     * @param creator the type creating this instance or <em>null</em> to detect the caller
+     * @throws InitializationException in case of an initialization problem
+     * @see #whitelistTrustedProperty
+     */
+    public XStream(
+        ReflectionProvider reflectionProvider, HierarchicalStreamDriver driver,
+        ClassLoaderReference classLoaderReference, Mapper mapper, ConverterLookup converterLookup,
+        ConverterRegistry converterRegistry, Class creator) {
+
+        // only capture the creation stack when it will actually be logged
+        if (log.isTraceEnabled()) {
+          log.trace("Created", new Throwable("XSTREAM-CREATE-MARKER"));
+        }
 
         // optionally enable white-list
-        if (isWhitelistEnabled()) {
+        if (isWhitelistEnabled(creator)) {
           this.typeWhitelist = new TypeWhitelist();
           setupWhitelist();
         }
@@ -626,76 +701,159 @@ public class XStream {
 
     /**
      * Determine if the white-list should be enabled for this instance.
-     * Will be disabled if detected to be constructed from a trusted location.
+     * Will be disabled if constructed by a trusted type, either given explicitly or detected from the caller.
      */
-    private boolean isWhitelistEnabled() {
+    private boolean isWhitelistEnabled(final Class creator) {
       if (whitelistForceProperty.get(Boolean.class, false)) {
         log.warn("White-list forced");
         return true;
       }
 
-      String createdFrom = null;
-      for (StackTraceElement element : new Throwable().getStackTrace()) {
-        // skip over com.thoughtworks.xstream.XStream calls (used by ctor and setup)
-        if (XStream.class.getName().equals(element.getClassName())) {
-          continue;
-        }
-        // until we find the class which called new XStream
-        createdFrom = element.getClassName();
-        break;
+      Class caller = creator != null ? creator : findCallerClass();
+      boolean trusted;
+      String createdFrom;
+      if (caller != null) {
+        trusted = isTrusted(caller);
+        createdFrom = caller.getName();
+      }
+      else {
+        createdFrom = findCaller();
+        trusted = createdFrom != null && whitelistTrusted.contains(createdFrom);
       }
 
       // if the type creating new XStream is not trusted, then enable the white-list
-      boolean trusted = whitelistTrusted.contains(createdFrom);
-      log.trace("White-list {} for {} usage by: {}", new Object[] {
-          (trusted ? "disabled" : "enabled"),
-          (trusted ? "trusted" : "untrusted"),
-          createdFrom
-      });
+      if (log.isTraceEnabled()) {
+        log.trace("White-list {} for {} usage by: {}", new Object[] {
+            (trusted ? "disabled" : "enabled"),
+            (trusted ? "trusted" : "untrusted"),
+            createdFrom
+        });
+      }
 
       return !trusted;
     }
 
-    private void setupWhitelist() {
-      typeWhitelist.allowType(
-          // white-list jre bits otherwise not detected
-          "java.util.Arrays$ArrayList",
-
-          // white-list some edge-case NX types
-          "com.sonatype.nexus.rest.templates.settings.M2SettingsTemplate",
-
-          // HACK: More junk for maven model marshalling
-          "org.codehaus.plexus.util.xml.Xpp3Dom"
-      );
+    /**
+     * Cached trust verdict per creating type.
+     */
+    private static final ClassValueCache trustedCreators = new ClassValueCache();
 
-      typeWhitelist.allowPackage(
-          // white-list restlet1x error types
-          "org.sonatype.plexus.rest.resource.error",
+    private static boolean isTrusted(final Class creator) {
+      Boolean trusted = (Boolean)trustedCreators.get(creator);
+      if (trusted == null) {
+        trusted = (Boolean)trustedCreators.putIfAbsent(
+            creator, Boolean.valueOf(whitelistTrusted.contains(creator.getName())));
+      }
+      return trusted.booleanValue();
+    }
 
-          // white-list procurement treeview types for early 2.x compat
-          "com.sonatype.nexus.procurement.treeview",
+    /**
+     * Maximum number of frames looked up to find the class creating a new XStream.
+     */
+    private static final int MAX_CALLER_DEPTH = 32;
 
-          // white-list staging api type for early 2.x compat
-          "com.sonatype.nexus.staging.api",
+    /**
+     * The JDK internal <code>sun.reflect.Reflection.getCallerClass(int)</code>, which only walks the
+     * requested number of frames, or <em>null</em> if it is not available.
+     */
+    private static volatile Method getCallerClass;
 
-          // HACK: allow NX-OSS tests to pass w/o modifying sources
-          "org.apache.maven.artifact.repository.metadata",
+    static {
+      try {
+        Method method = Class.forName("sun.reflect.Reflection").getMethod(
+            "getCallerClass", new Class[]{int.class});
+        if (method.invoke(null, new Object[]{Integer.valueOf(1)}) == XStream.class) {
+          getCallerClass = method;
+        }
+      }
+      catch (Exception e) {
+        // not available, stack trace is inspected instead
+      }
+      catch (LinkageError e) {
+        // not available, stack trace is inspected instead
+      }
+    }
 
-          // HACK: white-list maven model classes nexus renders these in rest asis
-          "org.apache.maven.model"
-      );
+    /**
+     * Find the class which called new XStream within the first {@link #MAX_CALLER_DEPTH} frames
+     * without capturing the stack. Returns <em>null</em> if the caller cannot be determined this way.
+     */
+    private static Class findCallerClass() {
+      Method method = getCallerClass;
+      if (method != null) {
+        try {
+          // frame 0 is the Reflection class itself
+          for (int i = 1; i <= MAX_CALLER_DEPTH; i++) {
+            Class caller = (Class)method.invoke(null, new Object[]{Integer.valueOf(i)});
+            // skip over com.thoughtworks.xstream.XStream calls (used by ctor and setup)
+            if (caller != XStream.class) {
+              return caller;
+            }
+          }
+        }
+        catch (Exception e) {
+          getCallerClass = null;
+        }
+      }
+      return null;
+    }
 
-      typeWhitelist.allowPattern(
-          // white-list sonatype core model patterns
-          "^(org|com)\\.sonatype\\..*\\.model\\..*",
-          "^(org|com)\\.sonatype\\..*\\.dto\\..*",
+    /**
+     * Find the name of the class which called new XStream from a captured stack trace. Only used if
+     * the caller class cannot be looked up directly, since it materializes the whole stack.
+     */
+    private static String findCaller() {
+      StackTraceElement[] stack = new Throwable().getStackTrace();
+      for (int i = 0; i < stack.length; i++) {
+        // skip over com.thoughtworks.xstream.XStream calls (used by ctor and setup)
+        String className = stack[i].getClassName();
+        if (!XStream.class.getName().equals(className)) {
+          return className;
+        }
+      }
+      return null;
+    }
 
-          // white-list types that appear to be entities
-          "^(org|com)\\.sonatype\\..*DTO$",
-          "^(org|com)\\.sonatype\\..*Dto$",
-          "^(org|com)\\.sonatype\\..*Request$",
-          "^(org|com)\\.sonatype\\..*Response$"
-      );
+    private void setupWhitelist() {
+      typeWhitelist.allow()
+          .types(
+              // white-list jre bits otherwise not detected
+              "java.util.Arrays$ArrayList",
+
+              // white-list some edge-case NX types
+              "com.sonatype.nexus.rest.templates.settings.M2SettingsTemplate",
+
+              // HACK: More junk for maven model marshalling
+              "org.codehaus.plexus.util.xml.Xpp3Dom"
+          )
+          .packages(
+              // white-list restlet1x error types
+              "org.sonatype.plexus.rest.resource.error",
+
+              // white-list procurement treeview types for early 2.x compat
+              "com.sonatype.nexus.procurement.treeview",
+
+              // white-list staging api type for early 2.x compat
+              "com.sonatype.nexus.staging.api",
+
+              // HACK: allow NX-OSS tests to pass w/o modifying sources
+              "org.apache.maven.artifact.repository.metadata",
+
+              // HACK: white-list maven model classes nexus renders these in rest asis
+              "org.apache.maven.model"
+          )
+          .patterns(
+              // white-list sonatype core model patterns
+              "^(org|com)\\.sonatype\\..*\\.model\\..*",
+              "^(org|com)\\.sonatype\\..*\\.dto\\..*",
+
+              // white-list types that appear to be entities
+              "^(org|com)\\.sonatype\\..*DTO$",
+              "^(org|com)\\.sonatype\\..*Dto$",
+              "^(org|com)\\.sonatype\\..*Request$",
+              "^(org|com)\\.sonatype\\..*Response$"
+          )
+          .apply();
     }
 
     //private Mapper buildMapper() {
@@ -911,6 +1069,12 @@ public class XStream {
             typeWhitelist.allowType(initialTypes);
           }
         }
+
+        @Override
+        protected void typesProcessed() {
+          // annotations change the configuration of the mappers wrapped by the cache
+          flushCaches();
+        }
       };
 
       mapper = wrapMapper((MapperWrapper)mapper);
@@ -963,6 +1127,20 @@ public class XStream {
             .lookupMapperOfType(LocalConversionMapper.class);
         annotationConfiguration = (AnnotationConfiguration)this.mapper
             .lookupMapperOfType(AnnotationConfiguration.class);
+        cachingMapper = (CachingMapper)this.mapper.lookupMapperOfType(CachingMapper.class);
+    }
+
+    /**
+     * Flush the cached lookups of the mapper chain and the converters after the configuration
+     * has changed.
+     */
+    private void flushCaches() {
+        if (cachingMapper != null) {
+            cachingMapper.flushCache();
+        }
+        if (converterLookup instanceof Caching) {
+            ((Caching)converterLookup).flushCache();
+        }
     }
 
     protected void setupAliases() {
@@ -1089,14 +1267,17 @@ public class XStream {
       }
 
       public boolean canConvert(final Class type) {
-        log.trace("Checking conversion of: {}", type);
-
         if (typeWhitelist.isAllowed(type)) {
-          log.trace("Conversion allowed");
+          if (log.isTraceEnabled()) {
+            log.trace("Conversion allowed: {}", type);
+          }
           return true;
         }
 
-        log.warn("Denying conversion of: {}", type);
+        // denial is already warned (rate-limited) by the white-list
+        if (log.isDebugEnabled()) {
+          log.debug("Denying conversion of: {}", type);
+        }
         return false;
       }
     }
@@ -1380,7 +1561,7 @@ public class XStream {
      * @throws XStreamException if the object cannot be deserialized
      */
     public Object fromXML(String xml) {
-        return fromXML(new StringReader(xml));
+        return fromXML(new OwnedStringReader(xml));
     }
 
     /**
@@ -1389,7 +1570,7 @@ public class XStream {
      * @throws XStreamException if the object cannot be deserialized
      */
     public Object fromXML(Reader reader) {
-        return unmarshal(hierarchicalStreamDriver.createReader(reader), null);
+        return unmarshalReader(reader, null);
     }
 
     /**
@@ -1436,7 +1617,7 @@ public class XStream {
      * @throws XStreamException if the object cannot be deserialized
      */
     public Object fromXML(String xml, Object root) {
-        return fromXML(new StringReader(xml), root);
+        return fromXML(new OwnedStringReader(xml), root);
     }
 
     /**
@@ -1448,7 +1629,29 @@ public class XStream {
      * @throws XStreamException if the object cannot be deserialized
      */
     public Object fromXML(Reader xml, Object root) {
-        return unmarshal(hierarchicalStreamDriver.createReader(xml), root);
+        return unmarshalReader(xml, root);
+    }
+
+    private Object unmarshalReader(Reader xml, Object root) {
+        HierarchicalStreamReader reader = hierarchicalStreamDriver.createReader(xml);
+        if (!(xml instanceof OwnedStringReader)) {
+            return unmarshal(reader, root);
+        }
+        // the reader of a String is owned, closing it releases pooled resources of the driver
+        try {
+            return unmarshal(reader, root);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reader for the XML passed as String, the only reader closed by XStream itself.
+     */
+    private static class OwnedStringReader extends StringReader {
+        OwnedStringReader(String xml) {
+            super(xml);
+        }
     }
 
     /**
@@ -1559,6 +1762,7 @@ public class XStream {
                 + " available");
         }
         classAliasingMapper.addClassAlias(name, type);
+        flushCaches();
     }
 
     /**
@@ -1577,6 +1781,7 @@ public class XStream {
                 + " available");
         }
         classAliasingMapper.addTypeAlias(name, type);
+        flushCaches();
     }
 
     /**
@@ -1609,6 +1814,7 @@ public class XStream {
                 + " available");
         }
         packageAliasingMapper.addPackageAlias(name, pkgName);
+        flushCaches();
     }
 
     /**
@@ -1626,6 +1832,7 @@ public class XStream {
                 + " available");
         }
         fieldAliasingMapper.addFieldAlias(alias, definedIn, fieldName);
+        flushCaches();
     }
 
     /**
@@ -1642,6 +1849,7 @@ public class XStream {
                 + " available");
         }
         attributeAliasingMapper.addAliasFor(attributeName, alias);
+        flushCaches();
     }
 
     /**
@@ -1662,6 +1870,7 @@ public class XStream {
                 + " available");
         }
         systemAttributeAliasingMapper.addAliasFor(systemAttributeName, alias);
+        flushCaches();
     }
 
     /**
@@ -1693,6 +1902,7 @@ public class XStream {
                 + " available");
         }
         attributeMapper.addAttributeFor(fieldName, type);
+        flushCaches();
     }
 
     /**
@@ -1710,6 +1920,7 @@ public class XStream {
                 + " available");
         }
         attributeMapper.addAttributeFor(definedIn, fieldName);
+        flushCaches();
     }
 
     /**
@@ -1726,6 +1937,7 @@ public class XStream {
                 + " available");
         }
         attributeMapper.addAttributeFor(type);
+        flushCaches();
     }
 
     /**
@@ -1744,6 +1956,7 @@ public class XStream {
                 + " available");
         }
         defaultImplementationsMapper.addDefaultImplementation(defaultImplementation, ofType);
+        flushCaches();
     }
 
     /**
@@ -1759,6 +1972,7 @@ public class XStream {
                 + " available");
         }
         immutableTypesMapper.addImmutableType(type);
+        flushCaches();
     }
 
     public void registerConverter(Converter converter) {
@@ -1768,6 +1982,7 @@ public class XStream {
     public void registerConverter(Converter converter, int priority) {
         if (converterRegistry != null) {
             converterRegistry.registerConverter(converter, priority);
+            flushCaches();
         }
     }
 
@@ -1779,6 +1994,7 @@ public class XStream {
         if (converterRegistry != null) {
             converterRegistry.registerConverter(
                 new SingleValueConverterWrapper(converter), priority);
+            flushCaches();
         }
     }
 
@@ -1797,6 +2013,7 @@ public class XStream {
                 + " available");
         }
         localConversionMapper.registerLocalConverter(definedIn, fieldName, converter);
+        flushCaches();
     }
 
     /**
@@ -1834,6 +2051,16 @@ public class XStream {
         return reflectionProvider;
     }
 
+    /**
+     * Retrieve the {@link TypeWhitelist} in use, e.g. to attach a
+     * {@link com.thoughtworks.xstream.whitelist.TypeWhitelistListener}.
+     * 
+     * @return the white-list or <code>null</code> if the white-list is disabled
+     */
+    public TypeWhitelist getTypeWhitelist() {
+        return typeWhitelist;
+    }
+
     public ConverterLookup getConverterLookup() {
         return converterLookup;
     }
@@ -1841,12 +2068,14 @@ public class XStream {
     /**
      * Change mode for dealing with duplicate references. Valid values are
      * <code>XPATH_ABSOLUTE_REFERENCES</code>, <code>XPATH_RELATIVE_REFERENCES</code>,
-     * <code>XStream.ID_REFERENCES</code> and <code>XStream.NO_REFERENCES</code>.
+     * <code>XStream.ID_REFERENCES</code>, <code>XStream.ORDINAL_REFERENCES</code> and
+     * <code>XStream.NO_REFERENCES</code>.
      * 
      * @throws IllegalArgumentException if the mode is not one of the declared types
      * @see #XPATH_ABSOLUTE_REFERENCES
      * @see #XPATH_RELATIVE_REFERENCES
      * @see #ID_REFERENCES
+     * @see #ORDINAL_REFERENCES
      * @see #NO_REFERENCES
      */
     public void setMode(int mode) {
@@ -1857,6 +2086,9 @@ public class XStream {
         case ID_REFERENCES:
             setMarshallingStrategy(new ReferenceByIdMarshallingStrategy());
             break;
+        case ORDINAL_REFERENCES:
+            setMarshallingStrategy(new ReferenceByOrdinalMarshallingStrategy());
+            break;
         case XPATH_RELATIVE_REFERENCES:
             setMarshallingStrategy(new ReferenceByXPathMarshallingStrategy(
                 ReferenceByXPathMarshallingStrategy.RELATIVE));
@@ -1998,6 +2230,7 @@ public class XStream {
                 + " available");
         }
         implicitCollectionMapper.add(ownerType, fieldName, itemName, itemType, keyFieldName);
+        flushCaches();
     }
 
     /**
@@ -2243,7 +2476,9 @@ public class XStream {
       {
         @Override
         public Class<?> loadClass(final String name) throws ClassNotFoundException {
-          log.trace("Load class: {}", name);
+          if (log.isTraceEnabled()) {
+            log.trace("Load class: {}", name);
+          }
           if (typeWhitelist != null) {
             typeWhitelist.ensureAllowed(name);
           }
@@ -2287,6 +2522,7 @@ public class XStream {
                 + " available");
         }
         fieldAliasingMapper.omitField(definedIn, fieldName);
+        flushCaches();
     }
     
     /**
@@ -2321,6 +2557,7 @@ public class XStream {
                 + " available");
         }
         fieldAliasingMapper.addFieldsToIgnore(pattern);
+        flushCaches();
     }
 
     /**
@@ -2336,6 +2573,7 @@ public class XStream {
                 + " available");
         }
         annotationConfiguration.processAnnotations(types);
+        flushCaches();
     }
 
     /**
@@ -2361,6 +2599,7 @@ public class XStream {
     public void autodetectAnnotations(boolean mode) {
         if (annotationConfiguration != null) {
             annotationConfiguration.autodetectAnnotations(mode);
+            flushCaches();
         }
     }
 
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.converters;
+
+/**
+ * A ConverterMatcher that handles a fixed set of types.
+ * <p>
+ * The converter lookup indexes such a converter by its types and does not have to call
+ * {@link #canConvert(Class)} for any other type. Therefore <code>canConvert</code> must return
+ * <code>true</code> for exactly the declared types. A subclass that overrides
+ * <code>canConvert</code> has to override {@link #getExactTypes()} also, otherwise the
+ * declaration is ignored.
+ * </p>
+ * 
+ * @see com.thoughtworks.xstream.core.util.ExactTypes
+ * @since 1.4.6
+ */
+public interface ExactTypeMatcher extends ConverterMatcher {
+
+    /**
+     * Get the types handled by the converter.
+     * 
+     * @return the types or <code>null</code> if they cannot be enumerated
+     * @since 1.4.6
+     */
+    Class[] getExactTypes();
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2006, 2007, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -10,6 +10,7 @@
  */
 package com.thoughtworks.xstream.converters;
 
+import com.thoughtworks.xstream.core.util.ExactTypes;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 
@@ -21,7 +22,7 @@ import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
  * @see com.thoughtworks.xstream.converters.Converter
  * @see com.thoughtworks.xstream.converters.SingleValueConverter
  */
-public class SingleValueConverterWrapper implements Converter, SingleValueConverter, ErrorReporter {
+public class SingleValueConverterWrapper implements Converter, SingleValueConverter, ExactTypeMatcher, ErrorReporter {
 
     private final SingleValueConverter wrapped;
 
@@ -33,6 +34,10 @@ public class SingleValueConverterWrapper implements Converter, SingleValueConver
         return wrapped.canConvert(type);
     }
 
+    public Class[] getExactTypes() {
+        return ExactTypes.of(wrapped);
+    }
+
     public String toString(Object obj) {
         return wrapped.toString(obj);
     }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,8 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 import java.math.BigDecimal;
 
 /**
@@ -19,12 +21,16 @@ import java.math.BigDecimal;
  *
  * @author Joe Walnes
  */
-public class BigDecimalConverter extends AbstractSingleValueConverter {
+public class BigDecimalConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(BigDecimal.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{BigDecimal.class};
+    }
+
     public Object fromString(String str) {
         return new BigDecimal(str);
     }
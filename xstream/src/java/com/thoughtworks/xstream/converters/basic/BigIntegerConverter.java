@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,8 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 import java.math.BigInteger;
 
 /**
@@ -18,12 +20,16 @@ import java.math.BigInteger;
  *
  * @author Joe Walnes
  */
-public class BigIntegerConverter extends AbstractSingleValueConverter {
+public class BigIntegerConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(BigInteger.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{BigInteger.class};
+    }
+
     public Object fromString(String str) {
         return new BigInteger(str);
     }
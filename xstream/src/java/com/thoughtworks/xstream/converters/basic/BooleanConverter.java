@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,8 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 
 /**
  * Converts a boolean primitive or java.lang.Boolean wrapper to
@@ -19,7 +21,7 @@ package com.thoughtworks.xstream.converters.basic;
  * @author Joe Walnes
  * @author David Blevins
  */
-public class BooleanConverter extends AbstractSingleValueConverter {
+public class BooleanConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public static final BooleanConverter TRUE_FALSE = new BooleanConverter("true", "false", false);
 
@@ -49,6 +51,10 @@ public class BooleanConverter extends AbstractSingleValueConverter {
         return type.equals(boolean.class) || type.equals(Boolean.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{boolean.class, Boolean.class};
+    }
+
     public Object fromString(final String str) {
         if (caseSensitive) {
             return positive.equals(str) ? Boolean.TRUE : Boolean.FALSE;
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,18 +11,24 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 /**
  * Converts a byte primitive or java.lang.Byte wrapper to
  * a String.
  *
  * @author Joe Walnes
  */
-public class ByteConverter extends AbstractSingleValueConverter {
+public class ByteConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(byte.class) || type.equals(Byte.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{byte.class, Byte.class};
+    }
+
     public Object fromString(String str) {
     	int value = Integer.decode(str).intValue();
     	if(value < Byte.MIN_VALUE || value > 0xFF) {
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@
 package com.thoughtworks.xstream.converters.basic;
 
 import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.SingleValueConverter;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
@@ -25,12 +26,16 @@ import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
  */
-public class CharConverter implements Converter, SingleValueConverter {
+public class CharConverter implements Converter, SingleValueConverter, ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(char.class) || type.equals(Character.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{char.class, Character.class};
+    }
+
     public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
         writer.setValue(toString(source));
     }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2012, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2012, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,6 +14,7 @@ package com.thoughtworks.xstream.converters.basic;
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.ErrorReporter;
 import com.thoughtworks.xstream.converters.ErrorWriter;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -25,6 +26,7 @@ import java.util.Locale;
 import java.util.TimeZone;
 
 import com.thoughtworks.xstream.core.JVM;
+import com.thoughtworks.xstream.core.util.FastDateFormat;
 import com.thoughtworks.xstream.core.util.ThreadSafeSimpleDateFormat;
 
 
@@ -40,10 +42,13 @@ import com.thoughtworks.xstream.core.util.ThreadSafeSimpleDateFormat;
  * 
  * <p>Dates in a different era are using a special default pattern that contains the era itself.</p> 
  * 
+ * <p>The default pattern in UTC and English locale is formatted and parsed without a
+ * SimpleDateFormat for the dates supported by {@link FastDateFormat}.</p>
+ * 
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
  */
-public class DateConverter extends AbstractSingleValueConverter implements ErrorReporter {
+public class DateConverter extends AbstractSingleValueConverter implements ErrorReporter, ExactTypeMatcher {
 
     private static final String[] DEFAULT_ACCEPTABLE_FORMATS;
     private static final String DEFAULT_PATTERN;
@@ -84,6 +89,7 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
     private final ThreadSafeSimpleDateFormat defaultEraFormat;
     private final ThreadSafeSimpleDateFormat[] acceptableFormats;
     private final Locale locale;
+    private final boolean fastFormat;
 
     /**
      * Construct a DateConverter with standard formats and lenient set off.
@@ -176,6 +182,12 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
         String defaultEraFormat, String defaultFormat, String[] acceptableFormats,
         Locale locale, TimeZone timeZone, boolean lenient) {
         this.locale = locale;
+        fastFormat = DEFAULT_PATTERN.equals(defaultFormat)
+            && (defaultEraFormat == null || DEFAULT_ERA_PATTERN.equals(defaultEraFormat))
+            && timeZone != null
+            && "UTC".equals(timeZone.getID())
+            && locale != null
+            && Locale.ENGLISH.getLanguage().equals(locale.getLanguage());
         if (defaultEraFormat != null) {
             this.defaultEraFormat = new ThreadSafeSimpleDateFormat(
                 defaultEraFormat, timeZone, locale, 4, 20, lenient);
@@ -197,7 +209,17 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
         return type.equals(Date.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Date.class};
+    }
+
     public Object fromString(String str) {
+        if (fastFormat) {
+            final long time = FastDateFormat.parseUTC(str);
+            if (time != FastDateFormat.INVALID) {
+                return new Date(time);
+            }
+        }
         if (defaultEraFormat != null) {
             try {
                 return defaultEraFormat.parse(str);
@@ -225,6 +247,12 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
 
     public String toString(Object obj) {
         final Date date = (Date)obj;
+        if (fastFormat) {
+            final String str = FastDateFormat.formatUTC(date.getTime());
+            if (str != null) {
+                return str;
+            }
+        }
         if (date.getTime() < ERA_START && defaultEraFormat != null) {
             return defaultEraFormat.format(date);
         } else {
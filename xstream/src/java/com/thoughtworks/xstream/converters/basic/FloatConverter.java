@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,18 +11,24 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 /**
  * Converts a float primitive or java.lang.Float wrapper to
  * a String.
  *
  * @author Joe Walnes
  */
-public class FloatConverter extends AbstractSingleValueConverter {
+public class FloatConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(float.class) || type.equals(Float.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{float.class, Float.class};
+    }
+
     public Object fromString(String str) {
         return Float.valueOf(str);
     }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,18 +11,24 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 /**
  * Converts an int primitive or java.lang.Integer wrapper to
  * a String.
  *
  * @author Joe Walnes
  */
-public class IntConverter extends AbstractSingleValueConverter {
+public class IntConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(int.class) || type.equals(Integer.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{int.class, Integer.class};
+    }
+
     public Object fromString(String str) {
     	long value = Long.decode(str).longValue();
     	if(value < Integer.MIN_VALUE || value > 0xFFFFFFFFl) {
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,17 +11,23 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 /**
  * Converts a long primitive or java.lang.Long wrapper to a String.
  * 
  * @author Joe Walnes
  */
-public class LongConverter extends AbstractSingleValueConverter {
+public class LongConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(long.class) || type.equals(Long.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{long.class, Long.class};
+    }
+
     public Object fromString(String str) {
         int len = str.length();
         if (len == 0) {
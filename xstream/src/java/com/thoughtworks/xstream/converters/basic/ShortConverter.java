@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,18 +11,24 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 /**
  * Converts a short primitive or java.lang.Short wrapper to
  * a String.
  *
  * @author Joe Walnes
  */
-public class ShortConverter extends AbstractSingleValueConverter {
+public class ShortConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(short.class) || type.equals(Short.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{short.class, Short.class};
+    }
+
     public Object fromString(String str) {
     	int value = Integer.decode(str).intValue();
     	if(value < Short.MIN_VALUE || value > 0xFFFF) {
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,12 +11,14 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 /**
  * Converts the contents of a StringBuffer to XML.
  *
  * @author Joe Walnes
  */
-public class StringBufferConverter extends AbstractSingleValueConverter {
+public class StringBufferConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public Object fromString(String str) {
         return new StringBuffer(str);
@@ -25,4 +27,8 @@ public class StringBufferConverter extends AbstractSingleValueConverter {
     public boolean canConvert(Class type) {
         return type.equals(StringBuffer.class);
     }
+
+    public Class[] getExactTypes() {
+        return new Class[]{StringBuffer.class};
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2008 XStream Committers.
+ * Copyright (C) 2008, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -10,12 +10,14 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 /**
  * Converts the contents of a StringBuilder to XML.
  *
  * @author J&ouml;rg Schaible
  */
-public class StringBuilderConverter extends AbstractSingleValueConverter {
+public class StringBuilderConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public Object fromString(String str) {
         return new StringBuilder(str);
@@ -24,4 +26,8 @@ public class StringBuilderConverter extends AbstractSingleValueConverter {
     public boolean canConvert(Class type) {
         return type.equals(StringBuilder.class);
     }
+
+    public Class[] getExactTypes() {
+        return new Class[]{StringBuilder.class};
+    }
 }
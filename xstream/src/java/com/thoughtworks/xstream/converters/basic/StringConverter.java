@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,8 @@
  */
 package com.thoughtworks.xstream.converters.basic;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
 import java.util.Collections;
 import java.util.Map;
 
@@ -30,7 +32,7 @@ import com.thoughtworks.xstream.core.util.WeakCache;
  * @author Rene Schwietzke
  * @author J&ouml;rg Schaible
  */
-public class StringConverter extends AbstractSingleValueConverter {
+public class StringConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     private static final int LENGTH_LIMIT = 38;
     
@@ -84,6 +86,10 @@ public class StringConverter extends AbstractSingleValueConverter {
         return type.equals(String.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{String.class};
+    }
+
     public Object fromString(final String str) {
         if (cache != null && str != null && (lengthLimit < 0 || str.length() <= lengthLimit)) {
             String s = (String)cache.get(str);
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2010 XStream Committers.
+ * Copyright (C) 2010, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,6 +14,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 
 import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 
 
 /**
@@ -21,12 +22,16 @@ import com.thoughtworks.xstream.converters.ConversionException;
  * 
  * @author Carlos Roman
  */
-public class URIConverter extends AbstractSingleValueConverter {
+public class URIConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(URI.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{URI.class};
+    }
+
     public Object fromString(String str) {
         try {
             return new URI(str);
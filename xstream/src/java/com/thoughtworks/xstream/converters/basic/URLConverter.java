@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@
 package com.thoughtworks.xstream.converters.basic;
 
 import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -21,12 +22,16 @@ import java.net.URL;
  *
  * @author J. Matthew Pryor
  */
-public class URLConverter extends AbstractSingleValueConverter {
+public class URLConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(URL.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{URL.class};
+    }
+
     public Object fromString(String str) {
         try {
             return new URL(str);
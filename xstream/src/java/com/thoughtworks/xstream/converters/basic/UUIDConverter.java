@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2008 XStream Committers.
+ * Copyright (C) 2008, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,7 @@
 package com.thoughtworks.xstream.converters.basic;
 
 import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 
 import java.util.UUID;
 
@@ -20,12 +21,16 @@ import java.util.UUID;
  * 
  * @author J&ouml;rg Schaible
  */
-public class UUIDConverter extends AbstractSingleValueConverter {
+public class UUIDConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(UUID.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{UUID.class};
+    }
+
     public Object fromString(String str) {
         try {
             return UUID.fromString(str);
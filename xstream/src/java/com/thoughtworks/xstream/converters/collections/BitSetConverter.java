@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@
 package com.thoughtworks.xstream.converters.collections;
 
 import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
@@ -26,12 +27,16 @@ import java.util.StringTokenizer;
  *
  * @author Joe Walnes
  */
-public class BitSetConverter implements Converter {
+public class BitSetConverter implements Converter, ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(BitSet.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{BitSet.class};
+    }
+
     public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
         BitSet bitSet = (BitSet) source;
         StringBuffer buffer = new StringBuffer();
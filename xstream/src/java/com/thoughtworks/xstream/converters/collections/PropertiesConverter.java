@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@
 package com.thoughtworks.xstream.converters.collections;
 
 import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
 import com.thoughtworks.xstream.core.util.Fields;
@@ -42,7 +43,7 @@ import java.util.TreeMap;
  * @author Joe Walnes
  * @author Kevin Ring
  */
-public class PropertiesConverter implements Converter {
+public class PropertiesConverter implements Converter, ExactTypeMatcher {
 
     private final static Field defaultsField = Fields.locate(Properties.class, Properties.class, false);
     private final boolean sort;
@@ -59,6 +60,10 @@ public class PropertiesConverter implements Converter {
         return Properties.class == type;
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Properties.class};
+    }
+
     public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
         final Properties properties = (Properties) source;
         Map map = sort ? (Map)new TreeMap(properties) : (Map)properties;
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,6 +13,7 @@ package com.thoughtworks.xstream.converters.extended;
 
 import java.util.Currency;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
 
 /**
@@ -22,12 +23,16 @@ import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
  * @author Jose A. Illescas 
  * @author Joe Walnes
  */
-public class CurrencyConverter extends AbstractSingleValueConverter {
+public class CurrencyConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(Currency.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Currency.class};
+    }
+
     public Object fromString(String str) {
         return Currency.getInstance(str);
     }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,7 @@
  */
 package com.thoughtworks.xstream.converters.extended;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
 
 import java.io.File;
@@ -21,12 +22,16 @@ import java.io.File;
  *
  * @author Joe Walnes
  */
-public class FileConverter extends AbstractSingleValueConverter {
+public class FileConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(File.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{File.class};
+    }
+
     public Object fromString(String str) {
         return new File(str);
     }
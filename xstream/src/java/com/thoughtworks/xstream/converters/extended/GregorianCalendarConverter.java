@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@
 package com.thoughtworks.xstream.converters.extended;
 
 import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
 import com.thoughtworks.xstream.io.ExtendedHierarchicalStreamWriterHelper;
@@ -29,12 +30,16 @@ import java.util.TimeZone;
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
  */
-public class GregorianCalendarConverter implements Converter {
+public class GregorianCalendarConverter implements Converter, ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(GregorianCalendar.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{GregorianCalendar.class};
+    }
+
     public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
         GregorianCalendar calendar = (GregorianCalendar) source;
         ExtendedHierarchicalStreamWriterHelper.startNode(writer, "time", long.class);
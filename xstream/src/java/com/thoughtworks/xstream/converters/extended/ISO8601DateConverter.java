@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,8 @@
  */
 package com.thoughtworks.xstream.converters.extended;
 
+import com.thoughtworks.xstream.core.util.FastDateFormat;
+
 import java.util.Calendar;
 import java.util.Date;
 
@@ -29,6 +31,10 @@ public class ISO8601DateConverter extends ISO8601GregorianCalendarConverter {
     }
 
     public Object fromString(String str) {
+        final long time = FastDateFormat.parseISO8601(str);
+        if (time != FastDateFormat.INVALID) {
+            return new Date(time);
+        }
         return ((Calendar)super.fromString(str)).getTime();
     }
 
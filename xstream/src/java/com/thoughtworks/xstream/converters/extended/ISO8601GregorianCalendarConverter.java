@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,6 +13,7 @@ package com.thoughtworks.xstream.converters.extended;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
+import com.thoughtworks.xstream.core.util.FastDateFormat;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -20,6 +21,7 @@ import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.ISODateTimeFormat;
 
 import java.util.Calendar;
+import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.TimeZone;
 
@@ -27,7 +29,8 @@ import java.util.TimeZone;
 /**
  * A GregorianCalendarConverter conforming to the ISO8601 standard. The converter will always
  * serialize the calendar value in UTC and deserialize it to a value in the current default time
- * zone.
+ * zone. The full date and time with milliseconds is formatted and parsed without Joda-Time
+ * for the dates supported by {@link FastDateFormat}.
  * 
  * @author Mauro Talevi
  * @author J&ouml;rg Schaible
@@ -86,6 +89,13 @@ public class ISO8601GregorianCalendarConverter extends AbstractSingleValueConver
     }
 
     public Object fromString(String str) {
+        final long time = FastDateFormat.parseISO8601(str);
+        if (time != FastDateFormat.INVALID) {
+            // same calendar as DateTime.toGregorianCalendar()
+            final GregorianCalendar calendar = new GregorianCalendar(TimeZone.getDefault());
+            calendar.setTime(new Date(time));
+            return calendar;
+        }
         for (int i = 0; i < formattersUTC.length; i++ ) {
             DateTimeFormatter formatter = formattersUTC[i];
             try {
@@ -113,6 +123,24 @@ public class ISO8601GregorianCalendarConverter extends AbstractSingleValueConver
     }
 
     public String toString(Object obj) {
+        if (obj.getClass() == GregorianCalendar.class) {
+            final GregorianCalendar calendar = (GregorianCalendar)obj;
+            final long time = calendar.getTimeInMillis();
+            // Joda-Time uses the Julian calendar before the cutover
+            if (calendar.getGregorianChange().getTime() <= time) {
+                try {
+                    final int offset = DateTimeZone
+                        .forTimeZone(calendar.getTimeZone())
+                        .getOffset(time);
+                    final String str = FastDateFormat.formatISO8601(time, offset);
+                    if (str != null) {
+                        return str;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // unknown time zone
+                }
+            }
+        }
         DateTime dt = new DateTime(obj);
         return dt.toString(formattersUTC[0]);
     }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@
 package com.thoughtworks.xstream.converters.extended;
 
 import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
 import com.thoughtworks.xstream.core.ClassLoaderReference;
 import com.thoughtworks.xstream.mapper.CannotResolveClassException;
@@ -26,7 +27,7 @@ import com.thoughtworks.xstream.mapper.Mapper;
  * @author Matthew Sandoz
  * @author J&ouml;rg Schaible
  */
-public class JavaClassConverter extends AbstractSingleValueConverter {
+public class JavaClassConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     private Mapper mapper;
 
@@ -60,6 +61,10 @@ public class JavaClassConverter extends AbstractSingleValueConverter {
         return Class.class.equals(clazz); // :)
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Class.class};
+    }
+
     public String toString(Object obj) {
         return mapper.serializedClass(((Class) obj));
     }
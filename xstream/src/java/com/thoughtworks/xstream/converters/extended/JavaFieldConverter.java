@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2009, 2013 XStream Committers.
+ * Copyright (C) 2009, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@ package com.thoughtworks.xstream.converters.extended;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.SingleValueConverter;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
@@ -28,7 +29,7 @@ import java.lang.reflect.Field;
  * 
  * @author J&ouml;rg Schaible
  */
-public class JavaFieldConverter implements Converter {
+public class JavaFieldConverter implements Converter, ExactTypeMatcher {
 
     private final SingleValueConverter javaClassConverter;
     private final Mapper mapper;
@@ -64,6 +65,10 @@ public class JavaFieldConverter implements Converter {
         return type.equals(Field.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Field.class};
+    }
+
     public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
         Field field = (Field) source;
         Class type = field.getDeclaringClass();
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,6 +13,7 @@ package com.thoughtworks.xstream.converters.extended;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.SingleValueConverter;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
@@ -31,7 +32,7 @@ import java.util.List;
  * @author Aslak Helles&oslash;y
  * @author J&ouml;rg Schaible
  */
-public class JavaMethodConverter implements Converter {
+public class JavaMethodConverter implements Converter, ExactTypeMatcher {
 
     private final SingleValueConverter javaClassConverter;
 
@@ -64,6 +65,10 @@ public class JavaMethodConverter implements Converter {
         return type.equals(Method.class) || type.equals(Constructor.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Method.class, Constructor.class};
+    }
+
     public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
         if (source instanceof Method) {
             Method method = (Method) source;
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,7 @@
  */
 package com.thoughtworks.xstream.converters.extended;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
 
 import java.util.Locale;
@@ -21,12 +22,16 @@ import java.util.Locale;
  * @author Jose A. Illescas
  * @author Joe Walnes
  */
-public class LocaleConverter extends AbstractSingleValueConverter {
+public class LocaleConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(Locale.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Locale.class};
+    }
+
     public Object fromString(String str) {
         int[] underscorePositions = underscorePositions(str);
         String language, country, variant;
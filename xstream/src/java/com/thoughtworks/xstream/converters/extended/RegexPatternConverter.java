@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@
 package com.thoughtworks.xstream.converters.extended;
 
 import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
@@ -25,7 +26,7 @@ import java.util.regex.Pattern;
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
  */
-public class RegexPatternConverter implements Converter {
+public class RegexPatternConverter implements Converter, ExactTypeMatcher {
 
     /**
      * @since 1.4.5
@@ -43,6 +44,10 @@ public class RegexPatternConverter implements Converter {
         return type.equals(Pattern.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Pattern.class};
+    }
+
     public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
         Pattern pattern = (Pattern)source;
         writer.startNode("pattern");
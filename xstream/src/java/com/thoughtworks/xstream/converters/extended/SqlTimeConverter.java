@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,7 @@
  */
 package com.thoughtworks.xstream.converters.extended;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
 
 import java.sql.Time;
@@ -20,12 +21,16 @@ import java.sql.Time;
  *
  * @author Jose A. Illescas
  */
-public class SqlTimeConverter extends AbstractSingleValueConverter {
+public class SqlTimeConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     public boolean canConvert(Class type) {
         return type.equals(Time.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Time.class};
+    }
+
     public Object fromString(String str) {
         return Time.valueOf(str);
     }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007, 2012 XStream Committers.
+ * Copyright (C) 2006, 2007, 2012, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,7 +11,9 @@
  */
 package com.thoughtworks.xstream.converters.extended;
 
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
 import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
+import com.thoughtworks.xstream.core.util.FastDateFormat;
 import com.thoughtworks.xstream.core.util.ThreadSafeSimpleDateFormat;
 
 import java.sql.Timestamp;
@@ -25,7 +27,7 @@ import java.util.TimeZone;
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
  */
-public class SqlTimestampConverter extends AbstractSingleValueConverter {
+public class SqlTimestampConverter extends AbstractSingleValueConverter implements ExactTypeMatcher {
 
     private final ThreadSafeSimpleDateFormat format = new ThreadSafeSimpleDateFormat(
         "yyyy-MM-dd HH:mm:ss", TimeZone.getTimeZone("UTC"), 0, 5, false);
@@ -34,8 +36,16 @@ public class SqlTimestampConverter extends AbstractSingleValueConverter {
         return type.equals(Timestamp.class);
     }
 
+    public Class[] getExactTypes() {
+        return new Class[]{Timestamp.class};
+    }
+
     public String toString(Object obj) {
         Timestamp timestamp = (Timestamp)obj;
+        String str = FastDateFormat.formatUTCTimestamp(timestamp.getTime(), timestamp.getNanos());
+        if (str != null) {
+            return str;
+        }
         StringBuffer buffer = new StringBuffer(format.format(timestamp)).append('.');
         if (timestamp.getNanos() == 0) {
             buffer.append('0');
@@ -56,7 +66,11 @@ public class SqlTimestampConverter extends AbstractSingleValueConverter {
                 "Timestamp format must be yyyy-mm-dd hh:mm:ss[.fffffffff]");
         }
         try {
-            Timestamp timestamp = new Timestamp(format.parse(str.substring(0, idx)).getTime());
+            long time = FastDateFormat.parseUTCSeconds(str, idx);
+            if (time == FastDateFormat.INVALID) {
+                time = format.parse(str.substring(0, idx)).getTime();
+            }
+            Timestamp timestamp = new Timestamp(time);
             StringBuffer buffer = new StringBuffer(str.substring(idx + 1));
             while(buffer.length() != 9) {
                 buffer.append('0');
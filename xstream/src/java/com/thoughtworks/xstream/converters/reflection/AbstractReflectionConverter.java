@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -33,6 +33,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -41,6 +42,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public abstract class AbstractReflectionConverter implements Converter, Caching {
@@ -49,11 +53,15 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
     protected final Mapper mapper;
     protected transient SerializationMethodInvoker serializationMethodInvoker;
     private transient ReflectionProvider pureJavaReflectionProvider;
+    private transient volatile Map marshallingPlans;
+    private transient volatile Map unmarshallingPlans;
 
     public AbstractReflectionConverter(Mapper mapper, ReflectionProvider reflectionProvider) {
         this.mapper = mapper;
         this.reflectionProvider = reflectionProvider;
         serializationMethodInvoker = new SerializationMethodInvoker();
+        marshallingPlans = new ConcurrentHashMap();
+        unmarshallingPlans = new ConcurrentHashMap();
     }
     
     protected boolean canAccess(Class type) {
@@ -86,164 +94,147 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
 
     protected void doMarshal(final Object source, final HierarchicalStreamWriter writer,
         final MarshallingContext context) {
-        final List fields = new ArrayList();
-        final Map defaultFieldDefinition = new HashMap();
+        final Map plans = marshallingPlans;
+        final MarshallingPlan cachedPlan = (MarshallingPlan)plans.get(source.getClass());
+
+        // collect the values, as long as the fields match the plan no field info is necessary
+        final PlanVisitor visitor = new PlanVisitor(cachedPlan);
+        reflectionProvider.visitSerializableFields(source, visitor);
+
+        final MarshallingPlan plan;
+        final Object[] values;
+        if (visitor.fields == null && cachedPlan != null && visitor.index == cachedPlan.steps.length) {
+            plan = cachedPlan;
+            values = visitor.values;
+        } else {
+            final List fields = visitor.recordedFields();
+            plan = new MarshallingPlan(source.getClass(), fields);
+            plans.put(source.getClass(), plan);
+            values = new Object[fields.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = ((FieldInfo)fields.get(i)).value;
+            }
+        }
 
         // Attributes might be preferred to child elements ...
-        reflectionProvider.visitSerializableFields(source, new ReflectionProvider.Visitor() {
-            final Set writtenAttributes = new HashSet();
-
-            public void visit(String fieldName, Class type, Class definedIn, Object value) {
-                if (!mapper.shouldSerializeMember(definedIn, fieldName)) {
-                    return;
+        final MarshallingStep[] steps = plan.steps;
+        for (int i = 0; i < steps.length; i++) {
+            final MarshallingStep step = steps[i];
+            if (step.attributeConverter != null && values[i] != null) {
+                if (step.duplicateAttribute) {
+                    throw new ConversionException("Cannot write field with name '"
+                        + step.fieldName
+                        + "' twice as attribute for object of type "
+                        + source.getClass().getName());
                 }
-                if (!defaultFieldDefinition.containsKey(fieldName)) {
-                    Class lookupType = source.getClass();
-                    // See XSTR-457 and OmitFieldsTest
-                    if (definedIn != source.getClass()
-                        && !mapper.shouldSerializeMember(lookupType, fieldName)) {
-                        lookupType = definedIn;
-                    }
-                    defaultFieldDefinition.put(
-                        fieldName, reflectionProvider.getField(lookupType, fieldName));
+                final String str = step.attributeConverter.toString(values[i]);
+                if (str != null) {
+                    writer.addAttribute(step.attributeName, str);
                 }
+            }
+        }
 
-                SingleValueConverter converter = mapper.getConverterFromItemType(
-                    fieldName, type, definedIn);
-                if (converter != null) {
-                    final String attribute = mapper.aliasForAttribute(mapper.serializedMember(
-                        definedIn, fieldName));
-                    if (value != null) {
-                        if (writtenAttributes.contains(fieldName)) { // TODO: use attribute
-                            throw new ConversionException("Cannot write field with name '"
-                                + fieldName
-                                + "' twice as attribute for object of type "
-                                + source.getClass().getName());
-                        }
-                        final String str = converter.toString(value);
-                        if (str != null) {
-                            writer.addAttribute(attribute, str);
-                        }
+        for (int i = 0; i < steps.length; i++) {
+            final MarshallingStep step = steps[i];
+            final Object value = values[i];
+            if (!step.element || value == null) {
+                continue;
+            }
+            final Mapper.ImplicitCollectionMapping mapping = step.implicitCollection;
+            if (mapping != null) {
+                if (context instanceof ReferencingMarshallingContext) {
+                    if (value != Collections.EMPTY_LIST
+                        && value != Collections.EMPTY_SET
+                        && value != Collections.EMPTY_MAP) {
+                        ReferencingMarshallingContext refContext = (ReferencingMarshallingContext)context;
+                        refContext.registerImplicit(value);
                     }
-                    writtenAttributes.add(fieldName); // TODO: use attribute
-                } else {
-                    fields.add(new FieldInfo(fieldName, type, definedIn, value));
                 }
-            }
-        });
-
-        new Object() {
-            {
-                for (Iterator fieldIter = fields.iterator(); fieldIter.hasNext();) {
-                    FieldInfo info = (FieldInfo)fieldIter.next();
-                    if (info.value != null) {
-                        Mapper.ImplicitCollectionMapping mapping = mapper
-                            .getImplicitCollectionDefForFieldName(
-                                source.getClass(), info.fieldName);
-                        if (mapping != null) {
-                            if (context instanceof ReferencingMarshallingContext) {
-                                if (info.value != Collections.EMPTY_LIST
-                                    && info.value != Collections.EMPTY_SET
-                                    && info.value != Collections.EMPTY_MAP) {
-                                    ReferencingMarshallingContext refContext = (ReferencingMarshallingContext)context;
-                                    refContext.registerImplicit(info.value);
-                                }
-                            }
-                            final boolean isCollection = info.value instanceof Collection;
-                            final boolean isMap = info.value instanceof Map;
-                            final boolean isEntry = isMap && mapping.getKeyFieldName() == null;
-                            final boolean isArray = info.value.getClass().isArray();
-                            for (Iterator iter = isArray
-                                ? new ArrayIterator(info.value)
-                                : isCollection ? ((Collection)info.value).iterator() : isEntry
-                                    ? ((Map)info.value).entrySet().iterator()
-                                    : ((Map)info.value).values().iterator(); iter.hasNext();) {
-                                Object obj = iter.next();
-                                final String itemName;
-                                final Class itemType;
-                                if (obj == null) {
-                                    itemType = Object.class;
-                                    itemName = mapper.serializedClass(null);
-                                } else if (isEntry) {
-                                    final String entryName = mapping.getItemFieldName() != null
-                                        ? mapping.getItemFieldName()
-                                        : mapper.serializedClass(Map.Entry.class);
-                                    Map.Entry entry = (Map.Entry)obj;
-                                    ExtendedHierarchicalStreamWriterHelper.startNode(
-                                        writer, entryName, entry.getClass());
-                                    writeItem(entry.getKey(), context, writer);
-                                    writeItem(entry.getValue(), context, writer);
-                                    writer.endNode();
-                                    continue;
-                                } else if (mapping.getItemFieldName() != null) {
-                                    itemType = mapping.getItemType();
-                                    itemName = mapping.getItemFieldName();
-                                } else {
-                                    itemType = obj.getClass();
-                                    itemName = mapper.serializedClass(itemType);
-                                }
-                                writeField(
-                                    info.fieldName, itemName, itemType, info.definedIn, obj);
-                            }
-                        } else {
-                            writeField(
-                                info.fieldName, null, info.type, info.definedIn, info.value);
-                        }
+                final boolean isCollection = value instanceof Collection;
+                final boolean isMap = value instanceof Map;
+                final boolean isEntry = isMap && mapping.getKeyFieldName() == null;
+                final boolean isArray = value.getClass().isArray();
+                for (Iterator iter = isArray
+                    ? new ArrayIterator(value)
+                    : isCollection ? ((Collection)value).iterator() : isEntry
+                        ? ((Map)value).entrySet().iterator()
+                        : ((Map)value).values().iterator(); iter.hasNext();) {
+                    Object obj = iter.next();
+                    final String itemName;
+                    final Class itemType;
+                    if (obj == null) {
+                        itemType = Object.class;
+                        itemName = mapper.serializedClass(null);
+                    } else if (isEntry) {
+                        final String entryName = mapping.getItemFieldName() != null
+                            ? mapping.getItemFieldName()
+                            : mapper.serializedClass(Map.Entry.class);
+                        Map.Entry entry = (Map.Entry)obj;
+                        ExtendedHierarchicalStreamWriterHelper.startNode(
+                            writer, entryName, entry.getClass());
+                        writeItem(entry.getKey(), context, writer);
+                        writeItem(entry.getValue(), context, writer);
+                        writer.endNode();
+                        continue;
+                    } else if (mapping.getItemFieldName() != null) {
+                        itemType = mapping.getItemType();
+                        itemName = mapping.getItemFieldName();
+                    } else {
+                        itemType = obj.getClass();
+                        itemName = mapper.serializedClass(itemType);
                     }
+                    writeField(plan, step, itemName, itemType, obj, writer, context);
                 }
-
+            } else {
+                writeField(plan, step, step.elementName, step.type, value, writer, context);
             }
+        }
+    }
 
-            void writeField(String fieldName, String aliasName, Class fieldType,
-                Class definedIn, Object newObj) {
-                Class actualType = newObj != null ? newObj.getClass() : fieldType;
-                ExtendedHierarchicalStreamWriterHelper.startNode(writer, aliasName != null
-                    ? aliasName
-                    : mapper.serializedMember(source.getClass(), fieldName), actualType);
-
-                if (newObj != null) {
-                    Class defaultType = mapper.defaultImplementationOf(fieldType);
-                    if (!actualType.equals(defaultType)) {
-                        String serializedClassName = mapper.serializedClass(actualType);
-                        if (!serializedClassName.equals(mapper.serializedClass(defaultType))) {
-                            String attributeName = mapper.aliasForSystemAttribute("class");
-                            if (attributeName != null) {
-                                writer.addAttribute(attributeName, serializedClassName);
-                            }
-                        }
-                    }
-
-                    final Field defaultField = (Field)defaultFieldDefinition.get(fieldName);
-                    if (defaultField.getDeclaringClass() != definedIn) {
-                        String attributeName = mapper.aliasForSystemAttribute("defined-in");
-                        if (attributeName != null) {
-                            writer.addAttribute(
-                                attributeName, mapper.serializedClass(definedIn));
-                        }
+    private void writeField(MarshallingPlan plan, MarshallingStep step, String name,
+        Class fieldType, Object newObj, HierarchicalStreamWriter writer,
+        MarshallingContext context) {
+        Class actualType = newObj != null ? newObj.getClass() : fieldType;
+        ExtendedHierarchicalStreamWriterHelper.startNode(writer, name, actualType);
+
+        if (newObj != null) {
+            Class defaultType = fieldType == step.type
+                ? step.defaultType
+                : mapper.defaultImplementationOf(fieldType);
+            if (!actualType.equals(defaultType)) {
+                String serializedClassName = mapper.serializedClass(actualType);
+                if (!serializedClassName.equals(fieldType == step.type
+                    ? step.defaultTypeName
+                    : mapper.serializedClass(defaultType))) {
+                    if (plan.classAttributeName != null) {
+                        writer.addAttribute(plan.classAttributeName, serializedClassName);
                     }
-
-                    Field field = reflectionProvider.getField(definedIn, fieldName);
-                    marshallField(context, newObj, field);
                 }
-                writer.endNode();
             }
 
-            void writeItem(Object item, MarshallingContext context,
-                HierarchicalStreamWriter writer) {
-                if (item == null) {
-                    String name = mapper.serializedClass(null);
-                    ExtendedHierarchicalStreamWriterHelper.startNode(
-                        writer, name, Mapper.Null.class);
-                    writer.endNode();
-                } else {
-                    String name = mapper.serializedClass(item.getClass());
-                    ExtendedHierarchicalStreamWriterHelper.startNode(
-                        writer, name, item.getClass());
-                    context.convertAnother(item);
-                    writer.endNode();
-                }
+            if (step.definedInName != null) {
+                writer.addAttribute(plan.definedInAttributeName, step.definedInName);
             }
-        };
+
+            marshallField(context, newObj, step.field);
+        }
+        writer.endNode();
+    }
+
+    private void writeItem(Object item, MarshallingContext context,
+        HierarchicalStreamWriter writer) {
+        if (item == null) {
+            String name = mapper.serializedClass(null);
+            ExtendedHierarchicalStreamWriterHelper.startNode(
+                writer, name, Mapper.Null.class);
+            writer.endNode();
+        } else {
+            String name = mapper.serializedClass(item.getClass());
+            ExtendedHierarchicalStreamWriterHelper.startNode(
+                writer, name, item.getClass());
+            context.convertAnother(item);
+            writer.endNode();
+        }
     }
 
     protected void marshallField(final MarshallingContext context, Object newObj, Field field) {
@@ -261,47 +252,24 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
     public Object doUnmarshal(final Object result, final HierarchicalStreamReader reader,
         final UnmarshallingContext context) {
         final Class resultType = result.getClass();
-        final Set seenFields = new HashSet() {
-            public boolean add(Object e) {
-                if (!super.add(e)) {
-                    throw new DuplicateFieldException(((FastField)e).getName());
-                }
-                return true;
-            }
-        };
+        final UnmarshallingPlan plan = unmarshallingPlanFor(resultType);
+        final SeenFields seenFields = new SeenFields();
 
         // process attributes before recursing into child elements.
         Iterator it = reader.getAttributeNames();
         while (it.hasNext()) {
             String attrAlias = (String)it.next();
-            // TODO: realMember should return FastField
-            String attrName = mapper
-                .realMember(resultType, mapper.attributeForAlias(attrAlias));
-            Field field = reflectionProvider.getFieldOrNull(resultType, attrName);
-            if (field != null && shouldUnmarshalField(field)) {
-                Class classDefiningField = field.getDeclaringClass();
-                if (!mapper.shouldSerializeMember(classDefiningField, attrName)) {
-                    continue;
-                }
-                
-                // we need a converter that produces a string representation only
-                SingleValueConverter converter = mapper.getConverterFromAttribute(
-                    classDefiningField, attrName, field.getType());
-                Class type = field.getType();
-                if (converter != null) {
-                    Object value = converter.fromString(reader.getAttribute(attrAlias));
-                    if (type.isPrimitive()) {
-                        type = Primitives.box(type);
-                    }
-                    if (value != null && !type.isAssignableFrom(value.getClass())) {
-                        throw new ConversionException("Cannot convert type "
-                            + value.getClass().getName()
-                            + " to type "
-                            + type.getName());
-                    }
-                    seenFields.add(new FastField(classDefiningField, attrName));
-                    reflectionProvider.writeField(result, attrName, value, classDefiningField);
+            AttributeStep step = plan.attributeStep(attrAlias);
+            if (step.converter != null) {
+                Object value = step.converter.fromString(reader.getAttribute(attrAlias));
+                if (value != null && !step.type.isAssignableFrom(value.getClass())) {
+                    throw new ConversionException("Cannot convert type "
+                        + value.getClass().getName()
+                        + " to type "
+                        + step.type.getName());
                 }
+                seenFields.add(step.ordinal, step.fieldName);
+                reflectionProvider.writeField(result, step.fieldName, value, step.definedIn);
             }
         }
 
@@ -310,112 +278,32 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
             reader.moveDown();
 
             String originalNodeName = reader.getNodeName();
-            Class explicitDeclaringClass = readDeclaringClass(reader);
-            Class fieldDeclaringClass = explicitDeclaringClass == null
-                ? resultType
-                : explicitDeclaringClass;
-            String fieldName = mapper.realMember(fieldDeclaringClass, originalNodeName);
-            Mapper.ImplicitCollectionMapping implicitCollectionMapping = mapper
-                .getImplicitCollectionDefForFieldName(fieldDeclaringClass, fieldName);
+            Class explicitDeclaringClass = readDeclaringClass(reader, plan);
+            ElementStep step = explicitDeclaringClass == null
+                ? plan.elementStep(originalNodeName)
+                : resolveElementStep(plan, explicitDeclaringClass, originalNodeName);
+            String fieldName = step.fieldName;
             final Object value;
             String implicitFieldName = null;
-            Field field = null;
+            Field field = step.field;
             Class type = null;
-            if (implicitCollectionMapping == null) {
-                // no item of an implicit collection for this name ... do we have a field?
-                field = reflectionProvider.getFieldOrNull(fieldDeclaringClass, fieldName);
-                if (field == null) {
-                    // it is not a field ... do we have a field alias?
-                    Class itemType = mapper.getItemTypeForItemFieldName(resultType, fieldName);
-                    if (itemType != null) {
-                        String classAttribute = HierarchicalStreams.readClassAttribute(
-                            reader, mapper);
-                        if (classAttribute != null) {
-                            type = mapper.realClass(classAttribute);
-                        } else {
-                            type = itemType;
-                        }
-                    } else {
-                        // it is not an alias ... do we have an element of an implicit
-                        // collection based on type only?
-                        try {
-                            type = mapper.realClass(originalNodeName);
-                            implicitFieldName = mapper.getFieldNameForItemTypeAndName(
-                                context.getRequiredType(), type, originalNodeName);
-                        } catch (CannotResolveClassException e) {
-                            // type stays null ...
-                        }
-                        if (type == null || (type != null && implicitFieldName == null)) {
-                            // either not a type or element is a type alias, but does not
-                            // belong to an implicit field
-                            handleUnknownField(
-                                explicitDeclaringClass, fieldName, resultType, originalNodeName);
-                            
-                            // element is unknown in declaring class, ignore it now
-                            type = null;
-                        }
-                    }
-                    if (type == null) {
-                        // no type, no value
-                        value = null;
-                    } else {
-                        if (Map.Entry.class.equals(type)) {
-                            // it is an element of an implicit map with two elements now for
-                            // key and value 
-                            reader.moveDown();
-                            final Object key = context.convertAnother(
-                                result, HierarchicalStreams.readClassType(reader, mapper));
-                            reader.moveUp();
-                            reader.moveDown();
-                            final Object v = context.convertAnother(
-                                result, HierarchicalStreams.readClassType(reader, mapper));
-                            reader.moveUp();
-                            value = Collections.singletonMap(key, v)
-                                .entrySet().iterator().next();
-                        } else {
-                            // recurse info hierarchy
-                            value = context.convertAnother(result, type);
-                        }
-                    }
+            if (step.kind == ElementStep.FIELD) {
+                String classAttribute = HierarchicalStreams.readClassAttribute(reader, mapper);
+                if (classAttribute != null) {
+                    type = mapper.realClass(classAttribute);
                 } else {
-                    boolean fieldAlreadyChecked = false;
-                    
-                    // we have a field, but do we have to address a hidden one?
-                    if (explicitDeclaringClass == null) {
-                        while (field != null
-                            && !(fieldAlreadyChecked = shouldUnmarshalField(field)
-                                && mapper.shouldSerializeMember(
-                                    field.getDeclaringClass(), fieldName))) {
-                            field = reflectionProvider.getFieldOrNull(field
-                                .getDeclaringClass()
-                                .getSuperclass(), fieldName);
-                        }
-                    }
-                    if (field != null
-                        && (fieldAlreadyChecked || (shouldUnmarshalField(field) && mapper
-                            .shouldSerializeMember(field.getDeclaringClass(), fieldName)))) {
-
-                        String classAttribute = HierarchicalStreams.readClassAttribute(
-                            reader, mapper);
-                        if (classAttribute != null) {
-                            type = mapper.realClass(classAttribute);
-                        } else {
-                            type = mapper.defaultImplementationOf(field.getType());
-                        }
-                        // TODO the reflection provider should already return the proper field
-                        value = unmarshallField(context, result, type, field);
-                        Class definedType = field.getType();
-                        if (!definedType.isPrimitive()) {
-                            type = definedType;
-                        }
-                    } else {
-                        value = null;
-                    }
+                    type = step.defaultType;
                 }
-            } else {
+                // TODO the reflection provider should already return the proper field
+                value = unmarshallField(context, result, type, field);
+                Class definedType = field.getType();
+                if (!definedType.isPrimitive()) {
+                    type = definedType;
+                }
+            } else if (step.kind == ElementStep.IMPLICIT) {
                 // we have an implicit collection with defined names
-                implicitFieldName = implicitCollectionMapping.getFieldName();
-                type = implicitCollectionMapping.getItemType();
+                implicitFieldName = step.implicitCollection.getFieldName();
+                type = step.implicitCollection.getItemType();
                 if (type == null) {
                     String classAttribute = HierarchicalStreams.readClassAttribute(
                         reader, mapper);
@@ -424,6 +312,60 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
                         : originalNodeName);
                 }
                 value = context.convertAnother(result, type);
+            } else if (step.kind == ElementStep.OTHER) {
+                // it is not a field ... do we have a field alias?
+                if (step.itemType != null) {
+                    String classAttribute = HierarchicalStreams.readClassAttribute(
+                        reader, mapper);
+                    if (classAttribute != null) {
+                        type = mapper.realClass(classAttribute);
+                    } else {
+                        type = step.itemType;
+                    }
+                } else {
+                    // it is not an alias ... do we have an element of an implicit
+                    // collection based on type only?
+                    try {
+                        type = mapper.realClass(originalNodeName);
+                        implicitFieldName = mapper.getFieldNameForItemTypeAndName(
+                            context.getRequiredType(), type, originalNodeName);
+                    } catch (CannotResolveClassException e) {
+                        // type stays null ...
+                    }
+                    if (type == null || (type != null && implicitFieldName == null)) {
+                        // either not a type or element is a type alias, but does not
+                        // belong to an implicit field
+                        handleUnknownField(
+                            explicitDeclaringClass, fieldName, resultType, originalNodeName);
+                        
+                        // element is unknown in declaring class, ignore it now
+                        type = null;
+                    }
+                }
+                if (type == null) {
+                    // no type, no value
+                    value = null;
+                } else {
+                    if (Map.Entry.class.equals(type)) {
+                        // it is an element of an implicit map with two elements now for
+                        // key and value 
+                        reader.moveDown();
+                        final Object key = context.convertAnother(
+                            result, HierarchicalStreams.readClassType(reader, mapper));
+                        reader.moveUp();
+                        reader.moveDown();
+                        final Object v = context.convertAnother(
+                            result, HierarchicalStreams.readClassType(reader, mapper));
+                        reader.moveUp();
+                        value = Collections.singletonMap(key, v)
+                            .entrySet().iterator().next();
+                    } else {
+                        // recurse info hierarchy
+                        value = context.convertAnother(result, type);
+                    }
+                }
+            } else {
+                value = null;
             }
 
             if (value != null && !type.isAssignableFrom(value.getClass())) {
@@ -435,7 +377,7 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
 
             if (field != null) {
                 reflectionProvider.writeField(result, fieldName, value, field.getDeclaringClass());
-                seenFields.add(new FastField(field.getDeclaringClass(), fieldName));
+                seenFields.add(step.ordinal, fieldName);
             } else if (type != null) {
                 if (implicitFieldName == null) {
                     // look for implicit field
@@ -469,6 +411,78 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
         return result;
     }
 
+    private UnmarshallingPlan unmarshallingPlanFor(Class type) {
+        final Map plans = unmarshallingPlans;
+        UnmarshallingPlan plan = (UnmarshallingPlan)plans.get(type);
+        if (plan == null) {
+            plan = new UnmarshallingPlan(type);
+            plans.put(type, plan);
+        }
+        return plan;
+    }
+
+    private AttributeStep resolveAttributeStep(UnmarshallingPlan plan, String attrAlias) {
+        // TODO: realMember should return FastField
+        String attrName = mapper.realMember(plan.type, mapper.attributeForAlias(attrAlias));
+        Field field = reflectionProvider.getFieldOrNull(plan.type, attrName);
+        if (field != null && shouldUnmarshalField(field)) {
+            Class classDefiningField = field.getDeclaringClass();
+            if (mapper.shouldSerializeMember(classDefiningField, attrName)) {
+                // we need a converter that produces a string representation only
+                SingleValueConverter converter = mapper.getConverterFromAttribute(
+                    classDefiningField, attrName, field.getType());
+                if (converter != null) {
+                    Class type = field.getType();
+                    if (type.isPrimitive()) {
+                        type = Primitives.box(type);
+                    }
+                    return new AttributeStep(attrName, classDefiningField, converter, type, plan
+                        .ordinal(classDefiningField, attrName));
+                }
+            }
+        }
+        return AttributeStep.IGNORED;
+    }
+
+    private ElementStep resolveElementStep(UnmarshallingPlan plan, Class explicitDeclaringClass,
+        String originalNodeName) {
+        Class fieldDeclaringClass = explicitDeclaringClass == null
+            ? plan.type
+            : explicitDeclaringClass;
+        String fieldName = mapper.realMember(fieldDeclaringClass, originalNodeName);
+        Mapper.ImplicitCollectionMapping implicitCollectionMapping = mapper
+            .getImplicitCollectionDefForFieldName(fieldDeclaringClass, fieldName);
+        if (implicitCollectionMapping != null) {
+            return new ElementStep(fieldName, implicitCollectionMapping);
+        }
+
+        // no item of an implicit collection for this name ... do we have a field?
+        Field field = reflectionProvider.getFieldOrNull(fieldDeclaringClass, fieldName);
+        if (field == null) {
+            return new ElementStep(
+                fieldName, mapper.getItemTypeForItemFieldName(plan.type, fieldName));
+        }
+
+        boolean fieldAlreadyChecked = false;
+
+        // we have a field, but do we have to address a hidden one?
+        if (explicitDeclaringClass == null) {
+            while (field != null
+                && !(fieldAlreadyChecked = shouldUnmarshalField(field)
+                    && mapper.shouldSerializeMember(field.getDeclaringClass(), fieldName))) {
+                field = reflectionProvider.getFieldOrNull(field
+                    .getDeclaringClass()
+                    .getSuperclass(), fieldName);
+            }
+        }
+        final boolean unmarshalled = field != null
+            && (fieldAlreadyChecked || (shouldUnmarshalField(field) && mapper
+                .shouldSerializeMember(field.getDeclaringClass(), fieldName)));
+        return new ElementStep(unmarshalled ? ElementStep.FIELD : ElementStep.IGNORED,
+            fieldName, field, unmarshalled ? mapper.defaultImplementationOf(field.getType()) : null,
+            field != null ? plan.ordinal(field.getDeclaringClass(), fieldName) : -1);
+    }
+
     protected Object unmarshallField(final UnmarshallingContext context, final Object result,
         Class type, Field field) {
         return context.convertAnother(
@@ -533,8 +547,8 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
         collection.add(value);
     }
 
-    private Class readDeclaringClass(HierarchicalStreamReader reader) {
-        String attributeName = mapper.aliasForSystemAttribute("defined-in");
+    private Class readDeclaringClass(HierarchicalStreamReader reader, UnmarshallingPlan plan) {
+        String attributeName = plan.definedInAttributeName;
         String definedIn = attributeName == null ? null : reader.getAttribute(attributeName);
         return definedIn == null ? null : mapper.realClass(definedIn);
     }
@@ -556,10 +570,15 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
 
     public void flushCache() {
         serializationMethodInvoker.flushCache();
+        // plans still in use complete with the discarded maps
+        marshallingPlans = new ConcurrentHashMap();
+        unmarshallingPlans = new ConcurrentHashMap();
     }
 
     private Object readResolve() {
         serializationMethodInvoker = new SerializationMethodInvoker();
+        marshallingPlans = new ConcurrentHashMap();
+        unmarshallingPlans = new ConcurrentHashMap();
         return this;
     }
 
@@ -591,6 +610,290 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
         }
     }
 
+    /**
+     * Visitor collecting the field values of an object. The values are collected by index as
+     * long as the fields match the steps of the plan, otherwise all fields are recorded.
+     */
+    private static class PlanVisitor implements ReflectionProvider.Visitor {
+        private final MarshallingPlan plan;
+        final Object[] values;
+        int index;
+        List fields;
+
+        PlanVisitor(MarshallingPlan plan) {
+            this.plan = plan;
+            this.values = plan != null ? new Object[plan.steps.length] : null;
+        }
+
+        public void visit(String fieldName, Class type, Class definedIn, Object value) {
+            if (fields == null) {
+                if (plan != null
+                    && index < values.length
+                    && plan.steps[index].matches(fieldName, type, definedIn)) {
+                    values[index++] = value;
+                    return;
+                }
+                fields = recordedFields();
+            }
+            fields.add(new FieldInfo(fieldName, type, definedIn, value));
+        }
+
+        List recordedFields() {
+            if (fields == null) {
+                fields = new ArrayList();
+                for (int i = 0; i < index; i++) {
+                    final MarshallingStep step = plan.steps[i];
+                    fields.add(new FieldInfo(step.fieldName, step.type, step.definedIn, values[i]));
+                }
+            }
+            return fields;
+        }
+    }
+
+    /**
+     * The precomputed marshalling of a type. It holds a step for each field in the order the
+     * fields are visited by the reflection provider.
+     */
+    private class MarshallingPlan {
+        final MarshallingStep[] steps;
+        final String classAttributeName;
+        final String definedInAttributeName;
+
+        MarshallingPlan(Class type, List fields) {
+            classAttributeName = mapper.aliasForSystemAttribute("class");
+            definedInAttributeName = mapper.aliasForSystemAttribute("defined-in");
+
+            final Map defaultFieldDefinition = new HashMap();
+            final Set writtenAttributes = new HashSet();
+            steps = new MarshallingStep[fields.size()];
+            for (int i = 0; i < steps.length; i++) {
+                final FieldInfo info = (FieldInfo)fields.get(i);
+                final MarshallingStep step = new MarshallingStep(
+                    info.fieldName, info.type, info.definedIn);
+                steps[i] = step;
+                if (!mapper.shouldSerializeMember(info.definedIn, info.fieldName)) {
+                    continue;
+                }
+                if (!defaultFieldDefinition.containsKey(info.fieldName)) {
+                    Class lookupType = type;
+                    // See XSTR-457 and OmitFieldsTest
+                    if (info.definedIn != type
+                        && !mapper.shouldSerializeMember(lookupType, info.fieldName)) {
+                        lookupType = info.definedIn;
+                    }
+                    defaultFieldDefinition.put(
+                        info.fieldName, reflectionProvider.getField(lookupType, info.fieldName));
+                }
+
+                SingleValueConverter converter = mapper.getConverterFromItemType(
+                    info.fieldName, info.type, info.definedIn);
+                if (converter != null) {
+                    step.attributeConverter = converter;
+                    step.attributeName = mapper.aliasForAttribute(mapper.serializedMember(
+                        info.definedIn, info.fieldName));
+                    // TODO: use attribute
+                    step.duplicateAttribute = !writtenAttributes.add(info.fieldName);
+                } else {
+                    step.element = true;
+                    step.elementName = mapper.serializedMember(type, info.fieldName);
+                    step.implicitCollection = mapper.getImplicitCollectionDefForFieldName(
+                        type, info.fieldName);
+                    step.defaultType = mapper.defaultImplementationOf(info.type);
+                    step.defaultTypeName = mapper.serializedClass(step.defaultType);
+                    step.field = reflectionProvider.getField(info.definedIn, info.fieldName);
+                }
+            }
+
+            // the defined-in attribute depends on the field found first by name
+            for (int i = 0; i < steps.length; i++) {
+                final MarshallingStep step = steps[i];
+                if (step.element && definedInAttributeName != null) {
+                    final Field defaultField = (Field)defaultFieldDefinition.get(step.fieldName);
+                    if (defaultField.getDeclaringClass() != step.definedIn) {
+                        step.definedInName = mapper.serializedClass(step.definedIn);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The precomputed marshalling of a single field.
+     */
+    private static class MarshallingStep {
+        final String fieldName;
+        final Class type;
+        final Class definedIn;
+        SingleValueConverter attributeConverter;
+        String attributeName;
+        boolean duplicateAttribute;
+        boolean element;
+        String elementName;
+        Mapper.ImplicitCollectionMapping implicitCollection;
+        Class defaultType;
+        String defaultTypeName;
+        String definedInName;
+        Field field;
+
+        MarshallingStep(String fieldName, Class type, Class definedIn) {
+            this.fieldName = fieldName;
+            this.type = type;
+            this.definedIn = definedIn;
+        }
+
+        boolean matches(String fieldName, Class type, Class definedIn) {
+            return this.definedIn == definedIn
+                && this.type == type
+                && this.fieldName.equals(fieldName);
+        }
+    }
+
+    /**
+     * The precomputed unmarshalling of a type. Attributes and child elements are dispatched by
+     * their name to the resolved steps, the fields are numbered to detect duplicates.
+     */
+    private class UnmarshallingPlan {
+        /**
+         * Maximum number of names cached per type, the names are read from the stream.
+         */
+        private static final int MAX_STEPS = 256;
+
+        final Class type;
+        final String definedInAttributeName;
+        private final ConcurrentMap attributeSteps = new ConcurrentHashMap();
+        private final ConcurrentMap elementSteps = new ConcurrentHashMap();
+        private final ConcurrentMap ordinals = new ConcurrentHashMap();
+        private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+        UnmarshallingPlan(Class type) {
+            this.type = type;
+            definedInAttributeName = mapper.aliasForSystemAttribute("defined-in");
+        }
+
+        AttributeStep attributeStep(String attrAlias) {
+            AttributeStep step = (AttributeStep)attributeSteps.get(attrAlias);
+            if (step == null) {
+                step = resolveAttributeStep(this, attrAlias);
+                if (attributeSteps.size() < MAX_STEPS) {
+                    attributeSteps.put(attrAlias, step);
+                }
+            }
+            return step;
+        }
+
+        ElementStep elementStep(String nodeName) {
+            ElementStep step = (ElementStep)elementSteps.get(nodeName);
+            if (step == null) {
+                step = resolveElementStep(this, null, nodeName);
+                if (elementSteps.size() < MAX_STEPS) {
+                    elementSteps.put(nodeName, step);
+                }
+            }
+            return step;
+        }
+
+        int ordinal(Class definedIn, String fieldName) {
+            final FastField key = new FastField(definedIn, fieldName);
+            Integer ordinal = (Integer)ordinals.get(key);
+            if (ordinal == null) {
+                Integer next = new Integer(nextOrdinal.getAndIncrement());
+                ordinal = (Integer)ordinals.putIfAbsent(key, next);
+                if (ordinal == null) {
+                    ordinal = next;
+                }
+            }
+            return ordinal.intValue();
+        }
+    }
+
+    private static class AttributeStep {
+        static final AttributeStep IGNORED = new AttributeStep(null, null, null, null, -1);
+
+        final String fieldName;
+        final Class definedIn;
+        final SingleValueConverter converter;
+        final Class type;
+        final int ordinal;
+
+        AttributeStep(String fieldName, Class definedIn, SingleValueConverter converter,
+            Class type, int ordinal) {
+            this.fieldName = fieldName;
+            this.definedIn = definedIn;
+            this.converter = converter;
+            this.type = type;
+            this.ordinal = ordinal;
+        }
+    }
+
+    private static class ElementStep {
+        /** A field to unmarshal. */
+        static final int FIELD = 0;
+        /** An item of an implicit collection with defined names. */
+        static final int IMPLICIT = 1;
+        /** No field, but maybe a field alias or an item of an implicit collection by type. */
+        static final int OTHER = 2;
+        /** A field that is not unmarshalled. */
+        static final int IGNORED = 3;
+
+        final int kind;
+        final String fieldName;
+        final Mapper.ImplicitCollectionMapping implicitCollection;
+        final Class itemType;
+        final Field field;
+        final Class defaultType;
+        final int ordinal;
+
+        ElementStep(String fieldName, Mapper.ImplicitCollectionMapping implicitCollection) {
+            this(IMPLICIT, fieldName, implicitCollection, null, null, null, -1);
+        }
+
+        ElementStep(String fieldName, Class itemType) {
+            this(OTHER, fieldName, null, itemType, null, null, -1);
+        }
+
+        ElementStep(int kind, String fieldName, Field field, Class defaultType, int ordinal) {
+            this(kind, fieldName, null, null, field, defaultType, ordinal);
+        }
+
+        private ElementStep(int kind, String fieldName,
+            Mapper.ImplicitCollectionMapping implicitCollection, Class itemType, Field field,
+            Class defaultType, int ordinal) {
+            this.kind = kind;
+            this.fieldName = fieldName;
+            this.implicitCollection = implicitCollection;
+            this.itemType = itemType;
+            this.field = field;
+            this.defaultType = defaultType;
+            this.ordinal = ordinal;
+        }
+    }
+
+    /**
+     * The fields already unmarshalled for an object, a bit set indexed by the field ordinal.
+     */
+    private static class SeenFields {
+        private long bits;
+        private BitSet overflow;
+
+        void add(int ordinal, String fieldName) {
+            final boolean seen;
+            if (ordinal < 64) {
+                final long bit = 1L << ordinal;
+                seen = (bits & bit) != 0;
+                bits |= bit;
+            } else {
+                if (overflow == null) {
+                    overflow = new BitSet();
+                }
+                seen = overflow.get(ordinal);
+                overflow.set(ordinal);
+            }
+            if (seen) {
+                throw new DuplicateFieldException(fieldName);
+            }
+        }
+    }
+
     private static class ArraysList extends ArrayList {
         final Class physicalFieldType;
 
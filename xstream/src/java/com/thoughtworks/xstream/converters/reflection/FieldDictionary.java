@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,13 +13,12 @@ package com.thoughtworks.xstream.converters.reflection;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.thoughtworks.xstream.core.Caching;
 import com.thoughtworks.xstream.core.JVM;
@@ -28,6 +27,10 @@ import com.thoughtworks.xstream.core.util.OrderRetainingMap;
 
 /**
  * A field dictionary instance caches information about classes fields.
+ * <p>
+ * The fields of a class are published as immutable dictionary, the lookup does not lock.
+ * Building the dictionary of a new class synchronizes on a lock for this class only.
+ * </p>
  * 
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
@@ -35,8 +38,8 @@ import com.thoughtworks.xstream.core.util.OrderRetainingMap;
  */
 public class FieldDictionary implements Caching {
 
-    private transient Map keyedByFieldNameCache;
-    private transient Map keyedByFieldKeyCache;
+    private transient volatile Map dictionaryCache;
+    private transient ConcurrentMap buildLocks;
     private final FieldKeySorter sorter;
 
     public FieldDictionary() {
@@ -49,10 +52,14 @@ public class FieldDictionary implements Caching {
     }
 
     private void init() {
-        keyedByFieldNameCache = new HashMap();
-        keyedByFieldKeyCache = new HashMap();
-        keyedByFieldNameCache.put(Object.class, Collections.EMPTY_MAP);
-        keyedByFieldKeyCache.put(Object.class, Collections.EMPTY_MAP);
+        buildLocks = new ConcurrentHashMap();
+        dictionaryCache = newDictionaryCache();
+    }
+
+    private static Map newDictionaryCache() {
+        final Map cache = new ConcurrentHashMap();
+        cache.put(Object.class, new Dictionary(Collections.EMPTY_MAP, Collections.EMPTY_MAP));
+        return cache;
     }
 
     /**
@@ -110,77 +117,110 @@ public class FieldDictionary implements Caching {
      * @since 1.4
      */
     public Field fieldOrNull(Class cls, String name, Class definedIn) {
-        Map fields = buildMap(cls, definedIn != null);
-        Field field = (Field)fields.get(definedIn != null
-            ? (Object)new FieldKey(name, definedIn, -1)
-            : (Object)name);
-        return field;
+        final Dictionary dictionary = dictionaryFor(cls);
+        if (definedIn == null) {
+            return (Field)dictionary.keyedByFieldName.get(name);
+        }
+        final Map fields = (Map)dictionary.keyedByDeclaringClass.get(definedIn);
+        return fields == null ? null : (Field)fields.get(name);
+    }
+
+    /**
+     * Get the data a reflection provider attached to the fields of a class. The attachment is
+     * discarded together with the fields when the cache is flushed.
+     * 
+     * @param cls the class
+     * @return the attachment or <code>null</code>
+     */
+    Object getAttachment(Class cls) {
+        return dictionaryFor(cls).attachment;
+    }
+
+    /**
+     * Attach data of a reflection provider to the fields of a class, unless some data has already
+     * been attached.
+     * 
+     * @param cls the class
+     * @param attachment the data to attach
+     * @return the attached data
+     */
+    Object attach(Class cls, Object attachment) {
+        final Dictionary dictionary = dictionaryFor(cls);
+        synchronized (dictionary) {
+            if (dictionary.attachment == null) {
+                dictionary.attachment = attachment;
+            }
+            return dictionary.attachment;
+        }
     }
 
     private Map buildMap(final Class type, boolean tupleKeyed) {
-        Class cls = type;
-        synchronized (this) {
-            if (!keyedByFieldNameCache.containsKey(type)) {
-                final List superClasses = new ArrayList();
-                while (!Object.class.equals(cls)) {
-                    superClasses.add(0, cls);
-                    cls = cls.getSuperclass();
+        final Dictionary dictionary = dictionaryFor(type);
+        return tupleKeyed ? dictionary.keyedByFieldKey : dictionary.keyedByFieldName;
+    }
+
+    private Dictionary dictionaryFor(final Class type) {
+        final Map cache = dictionaryCache;
+        Dictionary dictionary = (Dictionary)cache.get(type);
+        if (dictionary == null) {
+            dictionary = buildDictionary(cache, type);
+        }
+        return dictionary;
+    }
+
+    private Dictionary buildDictionary(final Map cache, final Class type) {
+        final Dictionary parent = dictionaryFor(type.getSuperclass());
+        Object lock = buildLocks.get(type);
+        if (lock == null) {
+            final Object newLock = new Object();
+            lock = buildLocks.putIfAbsent(type, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
+        }
+        synchronized (lock) {
+            Dictionary dictionary = (Dictionary)cache.get(type);
+            if (dictionary == null) {
+                final Map keyedByFieldName = new HashMap(parent.keyedByFieldName);
+                final Map keyedByFieldKey = new OrderRetainingMap(parent.keyedByFieldKey);
+                Field[] fields = type.getDeclaredFields();
+                if (JVM.reverseFieldDefinition()) {
+                    for (int i = fields.length >> 1; i-- > 0;) {
+                        final int idx = fields.length - i - 1;
+                        final Field field = fields[i];
+                        fields[i] = fields[idx];
+                        fields[idx] = field;
+                    }
                 }
-                Map lastKeyedByFieldName = Collections.EMPTY_MAP;
-                Map lastKeyedByFieldKey = Collections.EMPTY_MAP;
-                for (final Iterator iter = superClasses.iterator(); iter.hasNext();) {
-                    cls = (Class)iter.next();
-                    if (!keyedByFieldNameCache.containsKey(cls)) {
-                        final Map keyedByFieldName = new HashMap(lastKeyedByFieldName);
-                        final Map keyedByFieldKey = new OrderRetainingMap(lastKeyedByFieldKey);
-                        Field[] fields = cls.getDeclaredFields();
-                        if (JVM.reverseFieldDefinition()) {
-                            for (int i = fields.length >> 1; i-- > 0;) {
-                                final int idx = fields.length - i - 1;
-                                final Field field = fields[i];
-                                fields[i] = fields[idx];
-                                fields[idx] = field;
-                            }
-                        }
-                        for (int i = 0; i < fields.length; i++ ) {
-                            Field field = fields[i];
-                            if (!field.isAccessible()) {
-                                field.setAccessible(true);
-                            }
-                            FieldKey fieldKey = new FieldKey(
-                                field.getName(), field.getDeclaringClass(), i);
-                            Field existent = (Field)keyedByFieldName.get(field.getName());
-                            if (existent == null
-                            // do overwrite statics
-                                || ((existent.getModifiers() & Modifier.STATIC) != 0)
-                                // overwrite non-statics with non-statics only
-                                || (existent != null && ((field.getModifiers() & Modifier.STATIC) == 0))) {
-                                keyedByFieldName.put(field.getName(), field);
-                            }
-                            keyedByFieldKey.put(fieldKey, field);
-                        }
-                        final Map sortedFieldKeys = sorter.sort(cls, keyedByFieldKey);
-                        keyedByFieldNameCache.put(cls, keyedByFieldName);
-                        keyedByFieldKeyCache.put(cls, sortedFieldKeys);
-                        lastKeyedByFieldName = keyedByFieldName;
-                        lastKeyedByFieldKey = sortedFieldKeys;
-                    } else {
-                        lastKeyedByFieldName = (Map)keyedByFieldNameCache.get(cls);
-                        lastKeyedByFieldKey = (Map)keyedByFieldKeyCache.get(cls);
+                for (int i = 0; i < fields.length; i++ ) {
+                    Field field = fields[i];
+                    if (!field.isAccessible()) {
+                        field.setAccessible(true);
+                    }
+                    FieldKey fieldKey = new FieldKey(
+                        field.getName(), field.getDeclaringClass(), i);
+                    Field existent = (Field)keyedByFieldName.get(field.getName());
+                    if (existent == null
+                    // do overwrite statics
+                        || ((existent.getModifiers() & Modifier.STATIC) != 0)
+                        // overwrite non-statics with non-statics only
+                        || (existent != null && ((field.getModifiers() & Modifier.STATIC) == 0))) {
+                        keyedByFieldName.put(field.getName(), field);
                     }
+                    keyedByFieldKey.put(fieldKey, field);
                 }
-                return tupleKeyed ? lastKeyedByFieldKey : lastKeyedByFieldName;
+                dictionary = new Dictionary(keyedByFieldName, sorter.sort(type, keyedByFieldKey));
+                cache.put(type, dictionary);
             }
+            // the dictionary is published, later callers will not ask for the lock
+            buildLocks.remove(type);
+            return dictionary;
         }
-        return (Map)(tupleKeyed
-                ? keyedByFieldKeyCache.get(type)
-                : keyedByFieldNameCache.get(type));
     }
 
-    public synchronized void flushCache() {
-        Set objectTypeSet = Collections.singleton(Object.class);
-        keyedByFieldNameCache.keySet().retainAll(objectTypeSet);
-        keyedByFieldKeyCache.keySet().retainAll(objectTypeSet);
+    public void flushCache() {
+        // lookups still running complete with the discarded dictionaries
+        dictionaryCache = newDictionaryCache();
         if (sorter instanceof Caching) {
             ((Caching)sorter).flushCache();
         }
@@ -190,4 +230,31 @@ public class FieldDictionary implements Caching {
         init();
         return this;
     }
+
+    /**
+     * The fields of a class, never modified after construction except for the attachment.
+     */
+    private static class Dictionary {
+        final Map keyedByFieldName;
+        final Map keyedByFieldKey;
+        final Map keyedByDeclaringClass;
+        volatile Object attachment;
+
+        Dictionary(Map keyedByFieldName, Map keyedByFieldKey) {
+            this.keyedByFieldName = keyedByFieldName;
+            this.keyedByFieldKey = keyedByFieldKey;
+            // index the field keys by their components, a lookup needs no FieldKey instance
+            keyedByDeclaringClass = new HashMap();
+            for (final Iterator iter = keyedByFieldKey.entrySet().iterator(); iter.hasNext();) {
+                final Map.Entry entry = (Map.Entry)iter.next();
+                final FieldKey fieldKey = (FieldKey)entry.getKey();
+                Map fields = (Map)keyedByDeclaringClass.get(fieldKey.getDeclaringClass());
+                if (fields == null) {
+                    fields = new HashMap();
+                    keyedByDeclaringClass.put(fieldKey.getDeclaringClass(), fields);
+                }
+                fields.put(fieldKey.getFieldName(), entry.getValue());
+            }
+        }
+    }
 }
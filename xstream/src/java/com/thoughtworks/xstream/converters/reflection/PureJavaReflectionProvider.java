@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,6 +12,7 @@
 package com.thoughtworks.xstream.converters.reflection;
 
 import com.thoughtworks.xstream.core.JVM;
+import com.thoughtworks.xstream.core.util.ClassValueCache;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -21,13 +22,12 @@ import java.io.ObjectInputStream;
 import java.io.ObjectStreamClass;
 import java.io.ObjectStreamConstants;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * Pure Java ObjectFactory that instantiates objects using standard Java reflection, however the types of objects
@@ -40,11 +40,15 @@ import java.util.WeakHashMap;
  * Cannot newInstance: classes without public visibility, non-static inner classes, classes without default constructors.
  * Note that any code in the constructor of a class will be executed when the ObjectFactory instantiates the object.
  * </p>
+ * <p>
+ * The way to instantiate a class is determined once per class, instantiating does not lock. The cache does not
+ * prevent the unloading of the instantiated classes.
+ * </p>
  * @author Joe Walnes
  */
 public class PureJavaReflectionProvider implements ReflectionProvider {
 
-    private transient Map serializedDataCache;
+    private transient ClassValueCache instantiatorCache;
     protected FieldDictionary fieldDictionary;
 
     public PureJavaReflectionProvider() {
@@ -57,23 +61,20 @@ public class PureJavaReflectionProvider implements ReflectionProvider {
     }
 
     public Object newInstance(Class type) {
+        Instantiator instantiator = (Instantiator)instantiatorCache.get(type);
+        if (instantiator == null) {
+            instantiator = (Instantiator)instantiatorCache.putIfAbsent(type, createInstantiator(type));
+        }
+        if (instantiator.data != null) {
+            return instantiateUsingSerialization(type, instantiator.data);
+        }
+        Constructor constructor = (Constructor)instantiator.constructor.get();
+        if (constructor == null) {
+            constructor = findDefaultConstructor(type);
+            instantiator.constructor = new WeakReference(constructor);
+        }
         try {
-            Constructor[] constructors = type.getDeclaredConstructors();
-            for (int i = 0; i < constructors.length; i++) {
-                final Constructor constructor = constructors[i];
-                if (constructor.getParameterTypes().length == 0) {
-                    if (!constructor.isAccessible()) {
-                        constructor.setAccessible(true);
-                    }
-                    return constructor.newInstance(new Object[0]);
-                }
-            }
-            if (Serializable.class.isAssignableFrom(type)) {
-                return instantiateUsingSerialization(type);
-            } else {
-                throw new ObjectAccessException("Cannot construct " + type.getName()
-                        + " as it does not have a no-args constructor");
-            }
+            return constructor.newInstance(new Object[0]);
         } catch (InstantiationException e) {
             throw new ObjectAccessException("Cannot construct " + type.getName(), e);
         } catch (IllegalAccessException e) {
@@ -89,35 +90,66 @@ public class PureJavaReflectionProvider implements ReflectionProvider {
         }
     }
 
-    private Object instantiateUsingSerialization(final Class type) {
-        try {
-            synchronized (serializedDataCache) {
-                byte[] data = (byte[]) serializedDataCache.get(type);
-                if (data ==  null) {
-                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-                    DataOutputStream stream = new DataOutputStream(bytes);
-                    stream.writeShort(ObjectStreamConstants.STREAM_MAGIC);
-                    stream.writeShort(ObjectStreamConstants.STREAM_VERSION);
-                    stream.writeByte(ObjectStreamConstants.TC_OBJECT);
-                    stream.writeByte(ObjectStreamConstants.TC_CLASSDESC);
-                    stream.writeUTF(type.getName());
-                    stream.writeLong(ObjectStreamClass.lookup(type).getSerialVersionUID());
-                    stream.writeByte(2);  // classDescFlags (2 = Serializable)
-                    stream.writeShort(0); // field count
-                    stream.writeByte(ObjectStreamConstants.TC_ENDBLOCKDATA);
-                    stream.writeByte(ObjectStreamConstants.TC_NULL);
-                    data = bytes.toByteArray();
-                    serializedDataCache.put(type, data);
+    /**
+     * Determine how to instantiate a type: the accessible default constructor or the serialized data of an empty
+     * instance.
+     */
+    private Instantiator createInstantiator(Class type) {
+        final Constructor constructor = findDefaultConstructor(type);
+        if (constructor != null) {
+            return new Instantiator(constructor);
+        }
+        if (Serializable.class.isAssignableFrom(type)) {
+            return new Instantiator(createSerializedData(type));
+        } else {
+            throw new ObjectAccessException("Cannot construct " + type.getName()
+                    + " as it does not have a no-args constructor");
+        }
+    }
+
+    private Constructor findDefaultConstructor(Class type) {
+        Constructor[] constructors = type.getDeclaredConstructors();
+        for (int i = 0; i < constructors.length; i++) {
+            final Constructor constructor = constructors[i];
+            if (constructor.getParameterTypes().length == 0) {
+                if (!constructor.isAccessible()) {
+                    constructor.setAccessible(true);
                 }
-                
-                ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data)) {
-                    protected Class resolveClass(ObjectStreamClass desc)
-                        throws IOException, ClassNotFoundException {
-                        return Class.forName(desc.getName(), false, type.getClassLoader());
-                    }
-                };
-                return in.readObject();
+                return constructor;
             }
+        }
+        return null;
+    }
+
+    private byte[] createSerializedData(Class type) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream stream = new DataOutputStream(bytes);
+            stream.writeShort(ObjectStreamConstants.STREAM_MAGIC);
+            stream.writeShort(ObjectStreamConstants.STREAM_VERSION);
+            stream.writeByte(ObjectStreamConstants.TC_OBJECT);
+            stream.writeByte(ObjectStreamConstants.TC_CLASSDESC);
+            stream.writeUTF(type.getName());
+            stream.writeLong(ObjectStreamClass.lookup(type).getSerialVersionUID());
+            stream.writeByte(2);  // classDescFlags (2 = Serializable)
+            stream.writeShort(0); // field count
+            stream.writeByte(ObjectStreamConstants.TC_ENDBLOCKDATA);
+            stream.writeByte(ObjectStreamConstants.TC_NULL);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new ObjectAccessException("Cannot create " + type.getName() + " by JDK serialization", e);
+        }
+    }
+
+    private Object instantiateUsingSerialization(final Class type, final byte[] data) {
+        try {
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data)) {
+                protected Class resolveClass(ObjectStreamClass desc)
+                    throws IOException, ClassNotFoundException {
+                    return Class.forName(desc.getName(), false, type.getClassLoader());
+                }
+            };
+            return in.readObject();
         } catch (IOException e) {
             throw new ObjectAccessException("Cannot create " + type.getName() + " by JDK serialization", e);
         } catch (ClassNotFoundException e) {
@@ -203,6 +235,24 @@ public class PureJavaReflectionProvider implements ReflectionProvider {
     }
 
     protected void init() {
-        serializedDataCache = new WeakHashMap();
+        instantiatorCache = new ClassValueCache();
+    }
+
+    /**
+     * The way to instantiate a class. The constructor is only weakly referenced, since it references its class, and
+     * looked up again once it has been collected.
+     */
+    private static class Instantiator {
+        final byte[] data;
+        volatile WeakReference constructor;
+
+        Instantiator(Constructor constructor) {
+            this.data = null;
+            this.constructor = new WeakReference(constructor);
+        }
+
+        Instantiator(byte[] data) {
+            this.data = data;
+        }
     }
 }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2010, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2010, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,43 +13,35 @@ package com.thoughtworks.xstream.converters.reflection;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.core.Caching;
-import com.thoughtworks.xstream.core.util.FastField;
 
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
  * Convenience wrapper to invoke special serialization methods on objects (and perform
  * reflection caching).
+ * <p>
+ * The special methods of a class are resolved together once and cached per class, looking them
+ * up does not lock.
+ * </p>
  * 
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
  */
 public class SerializationMethodInvoker implements Caching {
 
-    private static final Method NO_METHOD = (new Object() {
-        private void noMethod() {
-        }
-    }).getClass().getDeclaredMethods()[0];
     private static final Object[] EMPTY_ARGS = new Object[0];
-    private static final FastField[] OBJECT_TYPE_FIELDS = new FastField[]{
-        new FastField(Object.class, "readResolve"), 
-        new FastField(Object.class, "writeReplace"), 
-        new FastField(Object.class, "readObject"), 
-        new FastField(Object.class, "writeObject")
-    };
-    private Map cache = Collections.synchronizedMap(new HashMap());
-    {
-        for(int i = 0; i < OBJECT_TYPE_FIELDS.length; ++i) {
-            cache.put(OBJECT_TYPE_FIELDS[i], NO_METHOD);
-        }
+    private static final Class[] READ_OBJECT_PARAMETERS = new Class[]{ObjectInputStream.class};
+    private static final Class[] WRITE_OBJECT_PARAMETERS = new Class[]{ObjectOutputStream.class};
+    private volatile ConcurrentMap cache;
+
+    public SerializationMethodInvoker() {
+        flushCache();
     }
 
     /**
@@ -59,7 +51,7 @@ public class SerializationMethodInvoker implements Caching {
         if (result == null) {
             return null;
         } else {
-            Method readResolveMethod = getMethod(result.getClass(), "readResolve", null, true);
+            Method readResolveMethod = getMethods(result.getClass()).readResolve;
             if (readResolveMethod != null) {
                 try {
                     return readResolveMethod.invoke(result, EMPTY_ARGS);
@@ -82,7 +74,7 @@ public class SerializationMethodInvoker implements Caching {
         if (object == null) {
             return null;
         } else {
-            Method writeReplaceMethod = getMethod(object.getClass(), "writeReplace", null, true);
+            Method writeReplaceMethod = getMethods(object.getClass()).writeReplace;
             if (writeReplaceMethod != null) {
                 try {
                     return writeReplaceMethod.invoke(object, EMPTY_ARGS);
@@ -102,14 +94,12 @@ public class SerializationMethodInvoker implements Caching {
     }
 
     public boolean supportsReadObject(Class type, boolean includeBaseClasses) {
-        return getMethod(
-            type, "readObject", new Class[]{ObjectInputStream.class}, includeBaseClasses) != null;
+        return getMethod(type, getMethods(type).readObject, includeBaseClasses) != null;
     }
 
     public void callReadObject(Class type, Object object, ObjectInputStream stream) {
         try {
-            Method readObjectMethod = getMethod(
-                type, "readObject", new Class[]{ObjectInputStream.class}, false);
+            Method readObjectMethod = getMethod(type, getMethods(type).readObject, false);
             readObjectMethod.invoke(object, new Object[]{stream});
         } catch (IllegalAccessException e) {
             throw new ConversionException("Could not call "
@@ -123,14 +113,12 @@ public class SerializationMethodInvoker implements Caching {
     }
 
     public boolean supportsWriteObject(Class type, boolean includeBaseClasses) {
-        return getMethod(
-            type, "writeObject", new Class[]{ObjectOutputStream.class}, includeBaseClasses) != null;
+        return getMethod(type, getMethods(type).writeObject, includeBaseClasses) != null;
     }
 
     public void callWriteObject(Class type, Object instance, ObjectOutputStream stream) {
         try {
-            Method readObjectMethod = getMethod(
-                type, "writeObject", new Class[]{ObjectOutputStream.class}, false);
+            Method readObjectMethod = getMethod(type, getMethods(type).writeObject, false);
             readObjectMethod.invoke(instance, new Object[]{stream});
         } catch (IllegalAccessException e) {
             throw new ConversionException("Could not call "
@@ -143,34 +131,73 @@ public class SerializationMethodInvoker implements Caching {
         }
     }
 
-    private Method getMethod(Class type, String name, Class[] parameterTypes,
-        boolean includeBaseclasses) {
-        Method method = getMethod(type, name, parameterTypes);
-        return method == NO_METHOD
+    private Method getMethod(Class type, Method method, boolean includeBaseclasses) {
+        return method == null
             || (!includeBaseclasses && !method.getDeclaringClass().equals(type))
             ? null
             : method;
     }
 
-    private Method getMethod(Class type, String name, Class[] parameterTypes) {
-        FastField method = new FastField(type, name);
-        Method result = (Method)cache.get(method);
+    private Methods getMethods(Class type) {
+        final ConcurrentMap cache = this.cache;
+        Methods methods = (Methods)cache.get(type);
+        if (methods == null) {
+            final Class superclass = type.getSuperclass();
+            methods = new Methods(type, superclass == null ? Methods.NONE : getMethods(superclass));
+            if (methods.isEmpty()) {
+                methods = Methods.NONE;
+            }
+            cache.putIfAbsent(type, methods);
+        }
+        return methods;
+    }
+
+    public void flushCache() {
+        // calls still running complete against the discarded cache
+        final ConcurrentMap cache = new ConcurrentHashMap();
+        cache.put(Object.class, Methods.NONE);
+        this.cache = cache;
+    }
 
-        if (result == null) {
+    /**
+     * The special serialization methods of a class, declared or inherited.
+     */
+    private static class Methods {
+        static final Methods NONE = new Methods();
+
+        final Method readResolve;
+        final Method writeReplace;
+        final Method readObject;
+        final Method writeObject;
+
+        private Methods() {
+            readResolve = writeReplace = readObject = writeObject = null;
+        }
+
+        Methods(Class type, Methods inherited) {
+            readResolve = getMethod(type, "readResolve", null, inherited.readResolve);
+            writeReplace = getMethod(type, "writeReplace", null, inherited.writeReplace);
+            readObject = getMethod(type, "readObject", READ_OBJECT_PARAMETERS, inherited.readObject);
+            writeObject = getMethod(type, "writeObject", WRITE_OBJECT_PARAMETERS, inherited.writeObject);
+        }
+
+        boolean isEmpty() {
+            return readResolve == null
+                && writeReplace == null
+                && readObject == null
+                && writeObject == null;
+        }
+
+        private static Method getMethod(Class type, String name, Class[] parameterTypes, Method inherited) {
             try {
-                result = type.getDeclaredMethod(name, parameterTypes);
+                Method result = type.getDeclaredMethod(name, parameterTypes);
                 if (!result.isAccessible()) {
                     result.setAccessible(true);
                 }
+                return result;
             } catch (NoSuchMethodException e) {
-                result = getMethod(type.getSuperclass(), name, parameterTypes);
+                return inherited;
             }
-            cache.put(method, result);
         }
-        return result;
-    }
-
-    public void flushCache() {
-        cache.keySet().retainAll(Arrays.asList(OBJECT_TYPE_FIELDS));
     }
 }
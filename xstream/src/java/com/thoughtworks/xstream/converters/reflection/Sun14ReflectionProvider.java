@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2011, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2011, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,13 +14,22 @@ package com.thoughtworks.xstream.converters.reflection;
 import sun.misc.Unsafe;
 
 import java.lang.reflect.Field;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Instantiates a new object on the Sun JVM by bypassing the constructor (meaning code in the constructor
  * will never be executed and parameters do not have to be known). This is the same method used by the internals of
  * standard Java serialization, but relies on internal Sun code that may not be present on all JVMs.
+ * <p>
+ * Fields are accessed directly at their offset. The accessors are prepared once per field and per class, reading and
+ * writing a field does not lock. The accessors are attached to the fields of the class in the {@link FieldDictionary},
+ * they are released together with them.
+ * </p>
  *
  * @author Joe Walnes
  * @author Brian Slesinsky
@@ -29,8 +38,6 @@ public class Sun14ReflectionProvider extends PureJavaReflectionProvider {
 
     private final static Unsafe unsafe;
     private final static Exception exception;
-    // references to the Field key are kept in the FieldDictionary
-    private transient Map fieldOffsetCache;
     static {
         Unsafe u = null;
         Exception ex = null;
@@ -74,6 +81,18 @@ public class Sun14ReflectionProvider extends PureJavaReflectionProvider {
         }
     }
 
+    public void visitSerializableFields(Object object, ReflectionProvider.Visitor visitor) {
+        if (exception != null) {
+            super.visitSerializableFields(object, visitor);
+            return;
+        }
+        final FieldAccessor[] accessors = getSerializableAccessors(object.getClass());
+        for (int i = 0; i < accessors.length; i++) {
+            final FieldAccessor accessor = accessors[i];
+            visitor.visit(accessor.name, accessor.type, accessor.definedIn, accessor.get(object));
+        }
+    }
+
     public void writeField(Object object, String fieldName, Object value, Class definedIn) {
         write(fieldDictionary.field(object.getClass(), fieldName, definedIn), object, value);
     }
@@ -83,49 +102,45 @@ public class Sun14ReflectionProvider extends PureJavaReflectionProvider {
             throw new ObjectAccessException("Could not set field " + object.getClass() + "." + field.getName(), exception);
         }
         try {
-            long offset = getFieldOffset(field);
-            Class type = field.getType();
-            if (type.isPrimitive()) {
-                if (type.equals(Integer.TYPE)) {
-                    unsafe.putInt(object, offset, ((Integer) value).intValue());
-                } else if (type.equals(Long.TYPE)) {
-                    unsafe.putLong(object, offset, ((Long) value).longValue());
-                } else if (type.equals(Short.TYPE)) {
-                    unsafe.putShort(object, offset, ((Short) value).shortValue());
-                } else if (type.equals(Character.TYPE)) {
-                    unsafe.putChar(object, offset, ((Character) value).charValue());
-                } else if (type.equals(Byte.TYPE)) {
-                    unsafe.putByte(object, offset, ((Byte) value).byteValue());
-                } else if (type.equals(Float.TYPE)) {
-                    unsafe.putFloat(object, offset, ((Float) value).floatValue());
-                } else if (type.equals(Double.TYPE)) {
-                    unsafe.putDouble(object, offset, ((Double) value).doubleValue());
-                } else if (type.equals(Boolean.TYPE)) {
-                    unsafe.putBoolean(object, offset, ((Boolean) value).booleanValue());
-                } else {
-                    throw new ObjectAccessException("Could not set field " +
-                            object.getClass() + "." + field.getName() +
-                            ": Unknown type " + type);
-                }
-            } else {
-                unsafe.putObject(object, offset, value);
-            }
-
+            getFieldAccessor(getClassAccessors(object.getClass()), field).set(object, value);
         } catch (IllegalArgumentException e) {
             throw new ObjectAccessException("Could not set field " + object.getClass() + "." + field.getName(), e);
         }
     }
-    
-    private synchronized long  getFieldOffset(Field f)
-    {
-        Long l = (Long)fieldOffsetCache.get(f);
-        if (l == null)
-        {
-            l = new Long(unsafe.objectFieldOffset(f));
-            fieldOffsetCache.put(f, l);
+
+    private ClassAccessors getClassAccessors(Class type) {
+        ClassAccessors accessors = (ClassAccessors)fieldDictionary.getAttachment(type);
+        if (accessors == null) {
+            accessors = (ClassAccessors)fieldDictionary.attach(type, new ClassAccessors());
+        }
+        return accessors;
+    }
+
+    private FieldAccessor getFieldAccessor(ClassAccessors accessors, Field field) {
+        FieldAccessor accessor = (FieldAccessor)accessors.byField.get(field);
+        if (accessor == null) {
+            accessor = new FieldAccessor(field);
+            accessors.byField.putIfAbsent(field, accessor);
         }
-        
-        return l.longValue();
+        return accessor;
+    }
+
+    private FieldAccessor[] getSerializableAccessors(Class type) {
+        final ClassAccessors classAccessors = getClassAccessors(type);
+        FieldAccessor[] accessors = classAccessors.serializable;
+        if (accessors == null) {
+            final List list = new ArrayList();
+            for (Iterator iterator = fieldDictionary.fieldsFor(type); iterator.hasNext();) {
+                Field field = (Field) iterator.next();
+                if (fieldModifiersSupported(field)) {
+                    validateFieldAccess(field);
+                    list.add(getFieldAccessor(classAccessors, field));
+                }
+            }
+            accessors = (FieldAccessor[])list.toArray(new FieldAccessor[list.size()]);
+            classAccessors.serializable = accessors;
+        }
+        return accessors;
     }
 
     protected void validateFieldAccess(Field field) {
@@ -137,8 +152,126 @@ public class Sun14ReflectionProvider extends PureJavaReflectionProvider {
         return this;
     }
 
-    protected void init() {
-        super.init();
-        fieldOffsetCache = new WeakHashMap();
+    /**
+     * The accessors of the fields of a class.
+     */
+    private static class ClassAccessors {
+        final ConcurrentMap byField = new ConcurrentHashMap();
+        volatile FieldAccessor[] serializable;
+    }
+
+    /**
+     * Accesses a field at its offset, the primitive kind is determined once.
+     */
+    private static class FieldAccessor {
+        private static final int OBJECT = 0;
+        private static final int INT = 1;
+        private static final int LONG = 2;
+        private static final int SHORT = 3;
+        private static final int CHAR = 4;
+        private static final int BYTE = 5;
+        private static final int FLOAT = 6;
+        private static final int DOUBLE = 7;
+        private static final int BOOLEAN = 8;
+
+        final String name;
+        final Class type;
+        final Class definedIn;
+        private final long offset;
+        private final int kind;
+        // volatile fields are read with the semantics of Field.get
+        private final Field volatileField;
+
+        FieldAccessor(Field field) {
+            volatileField = Modifier.isVolatile(field.getModifiers()) ? field : null;
+            name = field.getName();
+            type = field.getType();
+            definedIn = field.getDeclaringClass();
+            offset = unsafe.objectFieldOffset(field);
+            if (!type.isPrimitive()) {
+                kind = OBJECT;
+            } else if (type.equals(Integer.TYPE)) {
+                kind = INT;
+            } else if (type.equals(Long.TYPE)) {
+                kind = LONG;
+            } else if (type.equals(Short.TYPE)) {
+                kind = SHORT;
+            } else if (type.equals(Character.TYPE)) {
+                kind = CHAR;
+            } else if (type.equals(Byte.TYPE)) {
+                kind = BYTE;
+            } else if (type.equals(Float.TYPE)) {
+                kind = FLOAT;
+            } else if (type.equals(Double.TYPE)) {
+                kind = DOUBLE;
+            } else if (type.equals(Boolean.TYPE)) {
+                kind = BOOLEAN;
+            } else {
+                throw new ObjectAccessException("Could not access field " +
+                        definedIn + "." + name +
+                        ": Unknown type " + type);
+            }
+        }
+
+        Object get(Object object) {
+            if (volatileField != null) {
+                try {
+                    return volatileField.get(object);
+                } catch (IllegalAccessException e) {
+                    throw new ObjectAccessException("Could not get field " + definedIn + "." + name, e);
+                }
+            }
+            switch (kind) {
+            case INT:
+                return Integer.valueOf(unsafe.getInt(object, offset));
+            case LONG:
+                return Long.valueOf(unsafe.getLong(object, offset));
+            case SHORT:
+                return Short.valueOf(unsafe.getShort(object, offset));
+            case CHAR:
+                return Character.valueOf(unsafe.getChar(object, offset));
+            case BYTE:
+                return Byte.valueOf(unsafe.getByte(object, offset));
+            case FLOAT:
+                return new Float(unsafe.getFloat(object, offset));
+            case DOUBLE:
+                return new Double(unsafe.getDouble(object, offset));
+            case BOOLEAN:
+                return unsafe.getBoolean(object, offset) ? Boolean.TRUE : Boolean.FALSE;
+            default:
+                return unsafe.getObject(object, offset);
+            }
+        }
+
+        void set(Object object, Object value) {
+            switch (kind) {
+            case INT:
+                unsafe.putInt(object, offset, ((Integer) value).intValue());
+                break;
+            case LONG:
+                unsafe.putLong(object, offset, ((Long) value).longValue());
+                break;
+            case SHORT:
+                unsafe.putShort(object, offset, ((Short) value).shortValue());
+                break;
+            case CHAR:
+                unsafe.putChar(object, offset, ((Character) value).charValue());
+                break;
+            case BYTE:
+                unsafe.putByte(object, offset, ((Byte) value).byteValue());
+                break;
+            case FLOAT:
+                unsafe.putFloat(object, offset, ((Float) value).floatValue());
+                break;
+            case DOUBLE:
+                unsafe.putDouble(object, offset, ((Double) value).doubleValue());
+                break;
+            case BOOLEAN:
+                unsafe.putBoolean(object, offset, ((Boolean) value).booleanValue());
+                break;
+            default:
+                unsafe.putObject(object, offset, value);
+            }
+        }
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,7 +14,7 @@ import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.MarshallingContext;
-import com.thoughtworks.xstream.core.util.ObjectIdDictionary;
+import com.thoughtworks.xstream.core.util.IdentityObjectIdDictionary;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.path.Path;
 import com.thoughtworks.xstream.io.path.PathTracker;
@@ -33,8 +33,8 @@ import java.util.Iterator;
  */
 public abstract class AbstractReferenceMarshaller extends TreeMarshaller implements MarshallingContext {
 
-    private ObjectIdDictionary references = new ObjectIdDictionary();
-    private ObjectIdDictionary implicitElements = new ObjectIdDictionary();
+    private IdentityObjectIdDictionary references = new IdentityObjectIdDictionary();
+    private IdentityObjectIdDictionary implicitElements = new IdentityObjectIdDictionary();
     private PathTracker pathTracker = new PathTracker();
     private Path lastPath;
 
@@ -140,5 +140,13 @@ public abstract class AbstractReferenceMarshaller extends TreeMarshaller impleme
             add("implicit-element", item.toString());
             add("referencing-element", path.toString());
         }
+
+        /**
+         * @since 1.4.6
+         */
+        public ReferencedImplicitElementException(final Object item) {
+            super("Cannot reference implicit element");
+            add("implicit-element", item.toString());
+        }
     }
 }
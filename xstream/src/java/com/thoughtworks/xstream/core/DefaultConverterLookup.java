@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,16 +15,30 @@ import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.ConverterRegistry;
+import com.thoughtworks.xstream.core.util.ClassValueCache;
+import com.thoughtworks.xstream.core.util.ExactTypes;
 import com.thoughtworks.xstream.core.util.PrioritizedList;
 import com.thoughtworks.xstream.mapper.Mapper;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * The default implementation of converters lookup.
+ * <p>
+ * The converter found for a type is cached. The lookup is lock-free, only caching the converter
+ * of a new type and the registration of a converter synchronize. A registration
+ * starts a new generation of the cache, a search running concurrently stores its result into
+ * the discarded generation. The index of the registered converters and the cache are created
+ * lazily by the first lookup after a registration or a flush.
+ * </p>
+ * <p>
+ * Converters implementing {@link com.thoughtworks.xstream.converters.ExactTypeMatcher} are
+ * indexed by their types. They are not asked for any other type.
+ * </p>
  * 
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
@@ -33,10 +47,11 @@ import java.util.WeakHashMap;
 public class DefaultConverterLookup implements ConverterLookup, ConverterRegistry, Caching {
 
     private final PrioritizedList converters = new PrioritizedList();
-    private transient Map typeToConverterMap;
+    private transient volatile Index index;
+    private transient volatile ClassValueCache typeToConverterMap;
+    private transient boolean flushConverters;
 
     public DefaultConverterLookup() {
-    	readResolve();
     }
 
     /**
@@ -46,44 +61,104 @@ public class DefaultConverterLookup implements ConverterLookup, ConverterRegistr
     }
 
     public Converter lookupConverterForType(Class type) {
-        Converter cachedConverter = (Converter) typeToConverterMap.get(type);
+        // read the cache before the index, a concurrent registration resets them in reverse
+        ClassValueCache cache = typeToConverterMap;
+        if (cache == null) {
+            cache = cache();
+        }
+        Converter cachedConverter = (Converter) cache.get(type);
         if (cachedConverter != null) {
             return cachedConverter;
         }
-        Iterator iterator = converters.iterator();
-        while (iterator.hasNext()) {
-            Converter converter = (Converter) iterator.next();
-            if (converter.canConvert(type)) {
-                typeToConverterMap.put(type, converter);
-                return converter;
+        final Index index = index();
+        final Integer exact = (Integer) index.exactTypes.get(type);
+        final int end = exact == null ? index.converters.length : exact.intValue();
+        for (int i = 0; i < end; i++) {
+            // converters with exact types are indexed
+            if (!index.exact[i]) {
+                Converter converter = index.converters[i];
+                if (converter.canConvert(type)) {
+                    return (Converter) cache.putIfAbsent(type, converter);
+                }
             }
         }
+        if (exact != null) {
+            return (Converter) cache.putIfAbsent(type, index.converters[end]);
+        }
         throw new ConversionException("No converter specified for " + type);
     }
     
-    public void registerConverter(Converter converter, int priority) {
+    public synchronized void registerConverter(Converter converter, int priority) {
         converters.add(converter, priority);
-        for (Iterator iter = typeToConverterMap.keySet().iterator(); iter.hasNext();) {
-            Class type = (Class) iter.next();
-            if (converter.canConvert(type)) {
-                iter.remove();
+        index = null;
+        typeToConverterMap = null;
+    }
+    
+    public synchronized void flushCache() {
+        // the caches of the converters are flushed with the next lookup
+        typeToConverterMap = null;
+        flushConverters = true;
+    }
+
+    private synchronized ClassValueCache cache() {
+        if (typeToConverterMap == null) {
+            if (flushConverters) {
+                flushConverters = false;
+                final Converter[] candidates = index().converters;
+                for (int i = 0; i < candidates.length; i++) {
+                    Converter converter = candidates[i];
+                    if (converter instanceof Caching) {
+                        ((Caching)converter).flushCache();
+                    }
+                }
             }
+            typeToConverterMap = new ClassValueCache();
         }
+        return typeToConverterMap;
     }
-    
-    public void flushCache() {
-        typeToConverterMap.clear();
-        Iterator iterator = converters.iterator();
-        while (iterator.hasNext()) {
-            Converter converter = (Converter) iterator.next();
-            if (converter instanceof Caching) {
-                ((Caching)converter).flushCache();
+
+    private Index index() {
+        Index index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    index = new Index(converters);
+                    this.index = index;
+                }
             }
         }
+        return index;
     }
 
-    private Object readResolve() {
-        typeToConverterMap = Collections.synchronizedMap(new WeakHashMap());
-        return this;
+    /**
+     * The converters in the order of their priority. A converter declaring its exact types is
+     * indexed by these types with its position, only converters of a higher priority without
+     * exact types have to be asked before.
+     */
+    private static class Index {
+        final Converter[] converters;
+        final boolean[] exact;
+        final Map exactTypes = new HashMap();
+
+        Index(PrioritizedList prioritizedList) {
+            List list = new ArrayList();
+            for (Iterator iterator = prioritizedList.iterator(); iterator.hasNext();) {
+                list.add(iterator.next());
+            }
+            converters = (Converter[]) list.toArray(new Converter[list.size()]);
+            exact = new boolean[converters.length];
+            for (int i = 0; i < converters.length; i++) {
+                Class[] types = ExactTypes.of(converters[i]);
+                if (types != null) {
+                    exact[i] = true;
+                    for (int j = 0; j < types.length; j++) {
+                        if (!exactTypes.containsKey(types[j])) {
+                            exactTypes.put(types[j], new Integer(i));
+                        }
+                    }
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core;
+
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.core.util.IdentityObjectIdDictionary;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.WriterWrapper;
+import com.thoughtworks.xstream.io.path.Path;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+import java.util.Iterator;
+
+/**
+ * A TreeMarshaller that builds references with the ordinal of the first occurrence of an object.
+ * <p>
+ * The ordinals are written as IDs like the {@link ReferenceByIdMarshaller} does with its default
+ * ID generator. The path of the elements is not tracked, the marshaller only counts the started
+ * elements to recognize an object that is converted again at its own element.
+ * </p>
+ * 
+ * @since 1.4.6
+ */
+public class ReferenceByOrdinalMarshaller extends TreeMarshaller {
+
+    private final IdentityObjectIdDictionary references = new IdentityObjectIdDictionary();
+    private final IdentityObjectIdDictionary implicitElements = new IdentityObjectIdDictionary();
+    private final NodeCountingWriter nodeCounter;
+    private int nextOrdinal = 1;
+    private int lastNode;
+
+    public ReferenceByOrdinalMarshaller(HierarchicalStreamWriter writer,
+                                        ConverterLookup converterLookup,
+                                        Mapper mapper) {
+        super(writer, converterLookup, mapper);
+        this.nodeCounter = new NodeCountingWriter(writer);
+        this.writer = nodeCounter;
+    }
+
+    public void convert(Object item, Converter converter) {
+        if (getMapper().isImmutableValueType(item.getClass())) {
+            // strings, ints, dates, etc... don't bother using references.
+            converter.marshal(item, writer, this);
+        } else {
+            final int currentNode = nodeCounter.currentNode();
+            Id existingReference = (Id)references.lookupId(item);
+            if (existingReference != null && existingReference.node != currentNode) {
+                String attributeName = getMapper().aliasForSystemAttribute("reference");
+                if (attributeName != null) {
+                    writer.addAttribute(attributeName, String.valueOf(existingReference.ordinal));
+                }
+            } else {
+                final int ordinal = existingReference == null
+                    ? nextOrdinal++
+                    : existingReference.ordinal;
+                // elements started after the current one are its descendants
+                if (lastNode < currentNode) {
+                    String attributeName = getMapper().aliasForSystemAttribute("id");
+                    if (attributeName != null) {
+                        writer.addAttribute(attributeName, String.valueOf(ordinal));
+                    }
+                    lastNode = currentNode;
+                    references.associateId(item, new Id(ordinal, currentNode));
+                }
+                converter.marshal(item, writer, new ReferencingMarshallingContext() {
+                    
+                    public void put(Object key, Object value) {
+                        ReferenceByOrdinalMarshaller.this.put(key, value);
+                    }
+                    
+                    public Iterator keys() {
+                        return ReferenceByOrdinalMarshaller.this.keys();
+                    }
+                    
+                    public Object get(Object key) {
+                        return ReferenceByOrdinalMarshaller.this.get(key);
+                    }
+                    
+                    public void convertAnother(Object nextItem, Converter converter) {
+                        ReferenceByOrdinalMarshaller.this.convertAnother(nextItem, converter);
+                    }
+                    
+                    public void convertAnother(Object nextItem) {
+                        ReferenceByOrdinalMarshaller.this.convertAnother(nextItem);
+                    }
+                    
+                    public void replace(Object original, Object replacement) {
+                        references.associateId(replacement, new Id(ordinal, currentNode));
+                    }
+                    
+                    public Object lookupReference(Object item) {
+                        Id id = (Id)references.lookupId(item);
+                        return new Integer(id.ordinal);
+                    }
+                    
+                    /**
+                     * @deprecated As of 1.4.2 
+                     * @return <code>null</code> since the path is not tracked
+                     */
+                    public Path currentPath() {
+                        return null;
+                    }
+
+                    public void registerImplicit(Object item) {
+                        if (implicitElements.containsId(item)) {
+                            throw new AbstractReferenceMarshaller.ReferencedImplicitElementException(item);
+                        }
+                        implicitElements.associateId(item, item);
+                    }
+                });
+            }
+        }
+    }
+    
+    private static class Id {
+        final int ordinal;
+        final int node;
+        Id(int ordinal, int node) {
+            this.ordinal = ordinal;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Numbers the elements in the order they are started and keeps the numbers of the open ones.
+     */
+    private static class NodeCountingWriter extends WriterWrapper {
+        private int[] openNodes = new int[16];
+        private int depth;
+        private int count;
+
+        NodeCountingWriter(HierarchicalStreamWriter writer) {
+            super(writer);
+        }
+
+        int currentNode() {
+            return depth == 0 ? 0 : openNodes[depth - 1];
+        }
+
+        public void startNode(String name) {
+            pushNode();
+            super.startNode(name);
+        }
+
+        public void startNode(String name, Class clazz) {
+            pushNode();
+            super.startNode(name, clazz);
+        }
+
+        public void endNode() {
+            super.endNode();
+            --depth;
+        }
+
+        private void pushNode() {
+            if (depth == openNodes.length) {
+                int[] newOpenNodes = new int[depth * 2];
+                System.arraycopy(openNodes, 0, newOpenNodes, 0, depth);
+                openNodes = newOpenNodes;
+            }
+            openNodes[depth++] = ++count;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core;
+
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+/**
+ * Marshalling strategy using the ordinal of the first occurrence of an object as its reference.
+ * 
+ * @since 1.4.6
+ */
+public class ReferenceByOrdinalMarshallingStrategy extends AbstractTreeMarshallingStrategy {
+
+    protected TreeUnmarshaller createUnmarshallingContext(Object root,
+        HierarchicalStreamReader reader, ConverterLookup converterLookup, Mapper mapper) {
+        return new ReferenceByOrdinalUnmarshaller(root, reader, converterLookup, mapper);
+    }
+
+    protected TreeMarshaller createMarshallingContext(
+        HierarchicalStreamWriter writer, ConverterLookup converterLookup, Mapper mapper) {
+        return new ReferenceByOrdinalMarshaller(writer, converterLookup, mapper);
+    }
+}
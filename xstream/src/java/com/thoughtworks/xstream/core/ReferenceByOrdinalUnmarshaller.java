@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core;
+
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A TreeUnmarshaller that resolves references by the ordinals written by the
+ * {@link ReferenceByOrdinalMarshaller}.
+ * <p>
+ * The objects are kept in an array indexed by their ordinal. IDs far beyond the number of
+ * elements read so far are kept in a map instead, a document cannot enforce a huge array.
+ * </p>
+ * 
+ * @since 1.4.6
+ */
+public class ReferenceByOrdinalUnmarshaller extends TreeUnmarshaller {
+
+    private static final Object NULL = new Object();
+    private Object[] values = new Object[64];
+    private Map sparseValues;
+    private int[] parentStack = new int[16];
+    private int depth;
+    private int count;
+
+    public ReferenceByOrdinalUnmarshaller(Object root, HierarchicalStreamReader reader,
+                                          ConverterLookup converterLookup, Mapper mapper) {
+        super(root, reader, converterLookup, mapper);
+    }
+
+    protected Object convert(Object parent, Class type, Converter converter) {
+        if (depth > 0) { // handles circular references
+            int parentOrdinal = parentStack[depth - 1];
+            if (parentOrdinal > 0 && parent != null && getValue(parentOrdinal) == null) {
+                setValue(parentOrdinal, parent);
+            }
+        }
+        final Object result;
+        String attributeName = getMapper().aliasForSystemAttribute("reference");
+        String reference = attributeName == null ? null : reader.getAttribute(attributeName);
+        if (reference != null) {
+            Object cache = getValue(parseOrdinal(reference));
+            if (cache == null) {
+                final ConversionException ex = new ConversionException("Invalid reference");
+                ex.add("reference", reference);
+                throw ex;
+            } 
+            result = cache == NULL ? null : cache;
+        } else {
+            int currentOrdinal = getCurrentOrdinal();
+            if (depth == parentStack.length) {
+                int[] newParentStack = new int[depth * 2];
+                System.arraycopy(parentStack, 0, newParentStack, 0, depth);
+                parentStack = newParentStack;
+            }
+            parentStack[depth++] = currentOrdinal;
+            ++count;
+            result = super.convert(parent, type, converter);
+            if (currentOrdinal > 0) {
+                setValue(currentOrdinal, result == null ? NULL : result);
+            }
+            --depth;
+        }
+        return result;
+    }
+
+    private int getCurrentOrdinal() {
+        String attributeName = getMapper().aliasForSystemAttribute("id");
+        String id = attributeName == null ? null : reader.getAttribute(attributeName);
+        if (id == null) {
+            return 0;
+        }
+        int ordinal = parseOrdinal(id);
+        if (ordinal < 1) {
+            final ConversionException ex = new ConversionException("Invalid reference id");
+            ex.add("id", id);
+            throw ex;
+        }
+        return ordinal;
+    }
+
+    private static int parseOrdinal(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Object getValue(int ordinal) {
+        if (ordinal < 1) {
+            return null;
+        }
+        Object value = ordinal < values.length ? values[ordinal] : null;
+        if (value == null && sparseValues != null) {
+            value = sparseValues.get(new Integer(ordinal));
+        }
+        return value;
+    }
+
+    private void setValue(int ordinal, Object value) {
+        if (ordinal >= values.length) {
+            if (ordinal > 2 * count + values.length) {
+                if (sparseValues == null) {
+                    sparseValues = new HashMap();
+                }
+                sparseValues.put(new Integer(ordinal), value);
+                return;
+            }
+            Object[] newValues = new Object[Math.max(values.length * 2, ordinal + 1)];
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            values = newValues;
+        }
+        values[ordinal] = value;
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -16,7 +16,7 @@ import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.DataHolder;
 import com.thoughtworks.xstream.converters.MarshallingContext;
-import com.thoughtworks.xstream.core.util.ObjectIdDictionary;
+import com.thoughtworks.xstream.core.util.IdentityObjectIdDictionary;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.ExtendedHierarchicalStreamWriterHelper;
 import com.thoughtworks.xstream.mapper.Mapper;
@@ -29,7 +29,7 @@ public class TreeMarshaller implements MarshallingContext {
     protected HierarchicalStreamWriter writer;
     protected ConverterLookup converterLookup;
     private Mapper mapper;
-    private ObjectIdDictionary parentObjects = new ObjectIdDictionary();
+    private IdentityObjectIdDictionary parentObjects = new IdentityObjectIdDictionary();
     private DataHolder dataHolder;
 
     public TreeMarshaller(
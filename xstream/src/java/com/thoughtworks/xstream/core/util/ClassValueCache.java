@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * A cache of values computed per class.
+ * <p>
+ * The classes are weakly referenced, a cached value does not prevent the unloading of its class.
+ * Reads are lock-free and do not allocate, only adding a value synchronizes on the cache. The
+ * hash chains are immutable, a reader always traverses a consistent chain while a value is
+ * added. Values must not reference their class or the entry is never released. The
+ * <code>null</code> type is never cached.
+ * </p>
+ *
+ * @since 1.4.6
+ */
+public class ClassValueCache {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private volatile AtomicReferenceArray table;
+    private final ReferenceQueue queue = new ReferenceQueue();
+    private int size;
+
+    public ClassValueCache() {
+        table = new AtomicReferenceArray(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Get the cached value for a type.
+     *
+     * @param type the type
+     * @return the value or <code>null</code> if no value has been cached
+     * @since 1.4.6
+     */
+    public Object get(Class type) {
+        if (type == null) {
+            return null;
+        }
+        final AtomicReferenceArray tab = table;
+        for (Entry e = (Entry)tab.get(indexFor(type, tab.length())); e != null; e = e.next) {
+            if (e.get() == type) {
+                return e.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cache a value for a type unless a value is already cached.
+     *
+     * @param type the type
+     * @param value the value
+     * @return the value cached for the type
+     * @since 1.4.6
+     */
+    public synchronized Object putIfAbsent(Class type, Object value) {
+        if (type == null) {
+            return value;
+        }
+        expungeStaleEntries();
+        AtomicReferenceArray tab = table;
+        int index = indexFor(type, tab.length());
+        final Entry head = (Entry)tab.get(index);
+        for (Entry e = head; e != null; e = e.next) {
+            if (e.get() == type) {
+                return e.value;
+            }
+        }
+        if (size >= tab.length() * 3 / 4) {
+            tab = resize(tab);
+            index = indexFor(type, tab.length());
+        }
+        tab.set(index, new Entry(type, value, queue, (Entry)tab.get(index)));
+        ++size;
+        return value;
+    }
+
+    /**
+     * Get the number of cached values, including the ones of already unloaded classes.
+     *
+     * @since 1.4.6
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private AtomicReferenceArray resize(AtomicReferenceArray tab) {
+        final AtomicReferenceArray newTab = new AtomicReferenceArray(tab.length() * 2);
+        for (int i = 0; i < tab.length(); ++i) {
+            for (Entry e = (Entry)tab.get(i); e != null; e = e.next) {
+                final Class type = (Class)e.get();
+                if (type != null) {
+                    final int index = indexFor(type, newTab.length());
+                    newTab.set(index, new Entry(type, e.value, queue, (Entry)newTab.get(index)));
+                } else {
+                    --size;
+                }
+            }
+        }
+        // drain the queue, the copied entries are registered anew
+        while (queue.poll() != null) {
+        }
+        table = newTab;
+        return newTab;
+    }
+
+    private void expungeStaleEntries() {
+        if (queue.poll() == null) {
+            return;
+        }
+        while (queue.poll() != null) {
+        }
+        final AtomicReferenceArray tab = table;
+        for (int i = 0; i < tab.length(); ++i) {
+            final Entry head = (Entry)tab.get(i);
+            if (head != null && head.hasStaleEntry()) {
+                final Entry live = head.copyLive(queue);
+                tab.set(i, live);
+                size -= head.length() - (live == null ? 0 : live.length());
+            }
+        }
+    }
+
+    private static int indexFor(Class type, int length) {
+        int h = System.identityHashCode(type);
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return h & (length - 1);
+    }
+
+    private static class Entry extends WeakReference {
+        final Object value;
+        final Entry next;
+
+        Entry(Class type, Object value, ReferenceQueue queue, Entry next) {
+            super(type, queue);
+            this.value = value;
+            this.next = next;
+        }
+
+        boolean hasStaleEntry() {
+            for (Entry e = this; e != null; e = e.next) {
+                if (e.get() == null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int length() {
+            int length = 0;
+            for (Entry e = this; e != null; e = e.next) {
+                ++length;
+            }
+            return length;
+        }
+
+        Entry copyLive(ReferenceQueue queue) {
+            final Entry rest = next == null ? null : next.copyLive(queue);
+            final Class type = (Class)get();
+            return type == null ? rest : new Entry(type, value, queue, rest);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+import com.thoughtworks.xstream.converters.ConverterMatcher;
+import com.thoughtworks.xstream.converters.ExactTypeMatcher;
+
+
+/**
+ * Utility class for the types declared by an {@link ExactTypeMatcher}.
+ * 
+ * @since 1.4.6
+ */
+public final class ExactTypes {
+
+    // whether a converter type declares valid exact types, the check is reflective
+    private static final ClassValueCache validTypes = new ClassValueCache();
+
+    /**
+     * Get the exact types of a converter.
+     * <p>
+     * The declaration is only valid if <code>canConvert</code> and <code>getExactTypes</code> are
+     * implemented by the same class, a subclass may have changed the accepted types.
+     * </p>
+     * 
+     * @param matcher the converter
+     * @return the types or <code>null</code> if the converter does not declare valid exact types
+     * @since 1.4.6
+     */
+    public static Class[] of(ConverterMatcher matcher) {
+        if (!(matcher instanceof ExactTypeMatcher)) {
+            return null;
+        }
+        final Class type = matcher.getClass();
+        Boolean valid = (Boolean)validTypes.get(type);
+        if (valid == null) {
+            valid = (Boolean)validTypes.putIfAbsent(type, Boolean.valueOf(isValid(type)));
+        }
+        return valid.booleanValue() ? ((ExactTypeMatcher)matcher).getExactTypes() : null;
+    }
+
+    private static boolean isValid(Class type) {
+        try {
+            return type.getMethod("canConvert", new Class[]{Class.class}).getDeclaringClass() == type
+                .getMethod("getExactTypes", (Class[])null)
+                .getDeclaringClass();
+        } catch (NoSuchMethodException e) {
+            return false;
+        } catch (SecurityException e) {
+            return false;
+        }
+    }
+}
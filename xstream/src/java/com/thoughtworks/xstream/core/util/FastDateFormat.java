@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+/**
+ * Formats and parses the date formats used by default in XStream without a DateFormat.
+ * <p>
+ * The methods are thread-safe, they use no shared state and allocate nothing but their result.
+ * Only dates of the proleptic Gregorian calendar in the years 1583 to 9999 are supported.
+ * Unsupported dates are formatted as <code>null</code> and parsed as {@link #INVALID}, the
+ * caller is expected to fall back to a DateFormat then. The parsers accept only the exact
+ * shape of their format, anything else is left to the fallback as well.
+ * </p>
+ *
+ * @since 1.4.6
+ */
+public final class FastDateFormat {
+
+    /**
+     * Result of a parser for an unsupported text.
+     *
+     * @since 1.4.6
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final long GREGORIAN_START = daysFromCivil(1583, 1, 1) * MILLIS_PER_DAY;
+    private static final long GREGORIAN_END = daysFromCivil(10000, 1, 1) * MILLIS_PER_DAY;
+    private static final int DATE_TIME_LENGTH = 19;
+
+    private FastDateFormat() {
+    }
+
+    /**
+     * Format a date in UTC as <code>yyyy-MM-dd HH:mm:ss.S z</code>.
+     *
+     * @param millis the milliseconds since the epoch
+     * @return the formatted date or <code>null</code> if the date is not supported
+     * @since 1.4.6
+     */
+    public static String formatUTC(long millis) {
+        if (!isSupported(millis)) {
+            return null;
+        }
+        final char[] buffer = new char[DATE_TIME_LENGTH + 8];
+        int pos = appendDateTime(buffer, millis, ' ');
+        buffer[pos++] = '.';
+        final int fraction = (int)floorMod(millis, 1000);
+        if (fraction >= 100) {
+            buffer[pos++] = (char)('0' + fraction / 100);
+        }
+        if (fraction >= 10) {
+            buffer[pos++] = (char)('0' + fraction / 10 % 10);
+        }
+        buffer[pos++] = (char)('0' + fraction % 10);
+        buffer[pos++] = ' ';
+        buffer[pos++] = 'U';
+        buffer[pos++] = 'T';
+        buffer[pos++] = 'C';
+        return new String(buffer, 0, pos);
+    }
+
+    /**
+     * Parse a date in UTC formatted as <code>yyyy-MM-dd HH:mm:ss.S z</code>.
+     * <p>
+     * The fraction has one to three digits and the time zone is <em>UTC</em>.
+     * </p>
+     *
+     * @param str the text
+     * @return the milliseconds since the epoch or {@link #INVALID}
+     * @since 1.4.6
+     */
+    public static long parseUTC(String str) {
+        final int end = str.length() - 4;
+        if (end < DATE_TIME_LENGTH + 2
+            || end > DATE_TIME_LENGTH + 4
+            || !str.startsWith(" UTC", end)
+            || str.charAt(DATE_TIME_LENGTH) != '.') {
+            return INVALID;
+        }
+        final long millis = parseDateTime(str, ' ');
+        final int fraction = parseNumber(str, DATE_TIME_LENGTH + 1, end);
+        if (millis == INVALID || fraction < 0 || millis < GREGORIAN_START) {
+            return INVALID;
+        }
+        return millis + fraction;
+    }
+
+    /**
+     * Format a timestamp in UTC as <code>yyyy-MM-dd HH:mm:ss.f</code>, where the fraction
+     * contains the nanoseconds without trailing zeros.
+     *
+     * @param millis the milliseconds since the epoch
+     * @param nanos the nanoseconds of the second
+     * @return the formatted timestamp or <code>null</code> if the date is not supported
+     * @since 1.4.6
+     */
+    public static String formatUTCTimestamp(long millis, int nanos) {
+        if (!isSupported(millis)) {
+            return null;
+        }
+        final char[] buffer = new char[DATE_TIME_LENGTH + 10];
+        int pos = appendDateTime(buffer, millis, ' ');
+        buffer[pos++] = '.';
+        int divisor = 100000000;
+        do {
+            buffer[pos++] = (char)('0' + nanos / divisor % 10);
+            divisor /= 10;
+        } while (divisor > 0 && nanos % (divisor * 10) != 0);
+        return new String(buffer, 0, pos);
+    }
+
+    /**
+     * Parse the date and time of a timestamp in UTC formatted as
+     * <code>yyyy-MM-dd HH:mm:ss</code>.
+     *
+     * @param str the text
+     * @param end the index after the seconds
+     * @return the milliseconds since the epoch or {@link #INVALID}
+     * @since 1.4.6
+     */
+    public static long parseUTCSeconds(String str, int end) {
+        if (end != DATE_TIME_LENGTH) {
+            return INVALID;
+        }
+        final long millis = parseDateTime(str, ' ');
+        return millis < GREGORIAN_START ? INVALID : millis;
+    }
+
+    /**
+     * Format a date as ISO 8601 date and time with milliseconds and offset, i.e.
+     * <code>yyyy-MM-dd'T'HH:mm:ss.SSSZZ</code>.
+     *
+     * @param millis the milliseconds since the epoch
+     * @param offset the offset of the time zone in milliseconds
+     * @return the formatted date or <code>null</code> if the date or the offset is not
+     *         supported
+     * @since 1.4.6
+     */
+    public static String formatISO8601(long millis, int offset) {
+        final long local = millis + offset;
+        if (!isSupported(local) || offset % 60000 != 0) {
+            return null;
+        }
+        final char[] buffer = new char[DATE_TIME_LENGTH + 10];
+        int pos = appendDateTime(buffer, local, 'T');
+        buffer[pos++] = '.';
+        pos = appendDigits(buffer, pos, (int)floorMod(local, 1000), 3);
+        if (offset == 0) {
+            buffer[pos++] = 'Z';
+        } else {
+            buffer[pos++] = offset < 0 ? '-' : '+';
+            final int minutes = Math.abs(offset) / 60000;
+            pos = appendDigits(buffer, pos, minutes / 60, 2);
+            buffer[pos++] = ':';
+            pos = appendDigits(buffer, pos, minutes % 60, 2);
+        }
+        return new String(buffer, 0, pos);
+    }
+
+    /**
+     * Parse an ISO 8601 date and time with optional milliseconds and an offset, i.e.
+     * <code>yyyy-MM-dd'T'HH:mm:ss[.SSS]ZZ</code>.
+     * <p>
+     * The offset is either <em>Z</em> or has the form <em>+HH:mm</em>. Any year with four
+     * digits is supported.
+     * </p>
+     *
+     * @param str the text
+     * @return the milliseconds since the epoch or {@link #INVALID}
+     * @since 1.4.6
+     */
+    public static long parseISO8601(String str) {
+        final int length = str.length();
+        if (length <= DATE_TIME_LENGTH) {
+            return INVALID;
+        }
+        long millis = parseDateTime(str, 'T');
+        if (millis == INVALID) {
+            return INVALID;
+        }
+        int pos = DATE_TIME_LENGTH;
+        if (str.charAt(pos) == '.') {
+            final int fraction = parseNumber(str, pos + 1, pos + 4);
+            if (fraction < 0) {
+                return INVALID;
+            }
+            millis += fraction;
+            pos += 4;
+        }
+        if (pos == length - 1 && str.charAt(pos) == 'Z') {
+            return millis;
+        }
+        if (pos != length - 6 || str.charAt(pos + 3) != ':') {
+            return INVALID;
+        }
+        final char sign = str.charAt(pos);
+        final int hours = parseNumber(str, pos + 1, pos + 3);
+        final int minutes = parseNumber(str, pos + 4, pos + 6);
+        if ((sign != '+' && sign != '-')
+            || hours < 0
+            || hours > 23
+            || minutes < 0
+            || minutes > 59) {
+            return INVALID;
+        }
+        final long offset = (hours * 60 + minutes) * 60000L;
+        return sign == '+' ? millis - offset : millis + offset;
+    }
+
+    private static boolean isSupported(long millis) {
+        return millis >= GREGORIAN_START && millis < GREGORIAN_END;
+    }
+
+    /**
+     * Append <code>yyyy-MM-dd HH:mm:ss</code> with the given separator between date and time.
+     */
+    private static int appendDateTime(char[] buffer, long millis, char separator) {
+        final long days = floorDiv(millis, MILLIS_PER_DAY);
+        final int seconds = (int)((millis - days * MILLIS_PER_DAY) / 1000);
+
+        // civil from days, see http://howardhinnant.github.io/date_algorithms.html
+        final long z = days + 719468;
+        final long era = floorDiv(z, 146097);
+        final int doe = (int)(z - era * 146097);
+        final int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        final int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        final int mp = (5 * doy + 2) / 153;
+        final int day = doy - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 3 : mp - 9;
+        final int year = (int)(yoe + era * 400) + (month <= 2 ? 1 : 0);
+
+        int pos = appendDigits(buffer, 0, year, 4);
+        buffer[pos++] = '-';
+        pos = appendDigits(buffer, pos, month, 2);
+        buffer[pos++] = '-';
+        pos = appendDigits(buffer, pos, day, 2);
+        buffer[pos++] = separator;
+        pos = appendDigits(buffer, pos, seconds / 3600, 2);
+        buffer[pos++] = ':';
+        pos = appendDigits(buffer, pos, seconds / 60 % 60, 2);
+        buffer[pos++] = ':';
+        return appendDigits(buffer, pos, seconds % 60, 2);
+    }
+
+    private static int appendDigits(char[] buffer, int pos, int value, int digits) {
+        for (int i = pos + digits - 1; i >= pos; --i) {
+            buffer[i] = (char)('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    /**
+     * Parse <code>yyyy-MM-dd HH:mm:ss</code> with the given separator between date and time.
+     */
+    private static long parseDateTime(String str, char separator) {
+        if (str.length() < DATE_TIME_LENGTH
+            || str.charAt(4) != '-'
+            || str.charAt(7) != '-'
+            || str.charAt(10) != separator
+            || str.charAt(13) != ':'
+            || str.charAt(16) != ':') {
+            return INVALID;
+        }
+        final int year = parseNumber(str, 0, 4);
+        final int month = parseNumber(str, 5, 7);
+        final int day = parseNumber(str, 8, 10);
+        final int hour = parseNumber(str, 11, 13);
+        final int minute = parseNumber(str, 14, 16);
+        final int second = parseNumber(str, 17, 19);
+        if (year < 0
+            || month < 1
+            || month > 12
+            || day < 1
+            || day > daysInMonth(year, month)
+            || hour < 0
+            || hour > 23
+            || minute < 0
+            || minute > 59
+            || second < 0
+            || second > 59) {
+            return INVALID;
+        }
+        return daysFromCivil(year, month, day) * MILLIS_PER_DAY
+            + ((hour * 60 + minute) * 60 + second) * 1000L;
+    }
+
+    /**
+     * Parse the digits between the indices, returns -1 for an empty range, more than nine
+     * characters or any non-digit.
+     */
+    private static int parseNumber(String str, int start, int end) {
+        if (start >= end || end - start > 9 || end > str.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; ++i) {
+            final int digit = str.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Days since the epoch, see http://howardhinnant.github.io/date_algorithms.html
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yoe = y - era * 400;
+        final int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    private static long floorDiv(long x, long y) {
+        final long q = x / y;
+        return x % y < 0 ? q - 1 : q;
+    }
+
+    private static long floorMod(long x, long y) {
+        return x - floorDiv(x, y) * y;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+/**
+ * Store IDs against given object references for the duration of a single marshalling pass.
+ * <p>
+ * In contrast to {@link ObjectIdDictionary} the objects are referenced strongly and kept in an
+ * open addressing table using their identity hash code, no wrapper is allocated for any
+ * operation. The dictionary should therefore not outlive the marshalling pass it is used for.
+ * It is not thread-safe.
+ * </p>
+ *
+ * @since 1.4.6
+ */
+public class IdentityObjectIdDictionary {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    // keys at even, IDs at odd indices
+    private Object[] table = new Object[2 * INITIAL_CAPACITY];
+    private int size;
+
+    public void associateId(Object obj, Object id) {
+        final Object[] tab = table;
+        final int length = tab.length;
+        int i = indexFor(obj, length);
+        for (Object item; (item = tab[i]) != null; i = nextIndex(i, length)) {
+            if (item == obj) {
+                tab[i + 1] = id;
+                return;
+            }
+        }
+        tab[i] = obj;
+        tab[i + 1] = id;
+        if (++size * 3 > length) {
+            resize();
+        }
+    }
+
+    public Object lookupId(Object obj) {
+        final Object[] tab = table;
+        final int length = tab.length;
+        int i = indexFor(obj, length);
+        for (Object item; (item = tab[i]) != null; i = nextIndex(i, length)) {
+            if (item == obj) {
+                return tab[i + 1];
+            }
+        }
+        return null;
+    }
+
+    public boolean containsId(Object item) {
+        final Object[] tab = table;
+        final int length = tab.length;
+        int i = indexFor(item, length);
+        for (Object candidate; (candidate = tab[i]) != null; i = nextIndex(i, length)) {
+            if (candidate == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void removeId(Object item) {
+        final Object[] tab = table;
+        final int length = tab.length;
+        int i = indexFor(item, length);
+        for (Object candidate; (candidate = tab[i]) != null; i = nextIndex(i, length)) {
+            if (candidate == item) {
+                tab[i] = null;
+                tab[i + 1] = null;
+                --size;
+                closeDeletion(i);
+                return;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Move the following entries of the probe sequence into the freed slot, where they can
+     * still be found.
+     */
+    private void closeDeletion(int deleted) {
+        final Object[] tab = table;
+        final int length = tab.length;
+        Object item;
+        for (int i = nextIndex(deleted, length); (item = tab[i]) != null; i = nextIndex(i, length)) {
+            final int home = indexFor(item, length);
+            if ((i < home && (home <= deleted || deleted <= i)) || (home <= deleted && deleted <= i)) {
+                tab[deleted] = item;
+                tab[deleted + 1] = tab[i + 1];
+                tab[i] = null;
+                tab[i + 1] = null;
+                deleted = i;
+            }
+        }
+    }
+
+    private void resize() {
+        final Object[] oldTable = table;
+        final int length = oldTable.length * 2;
+        final Object[] tab = new Object[length];
+        for (int j = 0; j < oldTable.length; j += 2) {
+            final Object item = oldTable[j];
+            if (item != null) {
+                int i = indexFor(item, length);
+                while (tab[i] != null) {
+                    i = nextIndex(i, length);
+                }
+                tab[i] = item;
+                tab[i + 1] = oldTable[j + 1];
+            }
+        }
+        table = tab;
+    }
+
+    private static int indexFor(Object obj, int length) {
+        final int h = System.identityHashCode(obj);
+        // multiply by -127 and shift left to use the least bits as part of the even index
+        return ((h << 1) - (h << 8)) & (length - 1);
+    }
+
+    private static int nextIndex(int i, int length) {
+        return i + 2 < length ? i + 2 : 0;
+    }
+}
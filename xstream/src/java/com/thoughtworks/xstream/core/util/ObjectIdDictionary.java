@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2010 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2010, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -22,7 +22,8 @@ import java.util.Map;
  * <p>
  * Behaves similar to java.util.IdentityHashMap, but in JDK1.3 as well. Additionally the
  * implementation keeps track of orphaned IDs by using a WeakReference to store the reference
- * object.
+ * object. Use {@link IdentityObjectIdDictionary} if the dictionary is only used for a single
+ * marshalling pass.
  * </p>
  */
 public class ObjectIdDictionary {
@@ -1,23 +1,62 @@
 /*
- * Copyright (c) 2007 XStream Committers.
+ * Copyright (c) 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
  * style license a copy of which has been included with this distribution in
  * the LICENSE.txt file.
- * 
+ *
  * Created on 10. May 2007 by Joerg Schaible
  */
 package com.thoughtworks.xstream.core.util;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * A simple pool implementation.
+ * <p>
+ * Fetching and putting back instances is lock-free. Each thread starts its search for a free
+ * slot at its own position, so concurrent threads rarely compete for the same instance. If all
+ * instances of the pool are in use, the pool blocks until an instance is put back, allocates a
+ * temporary instance or fails, depending on its overflow mode. Instances put back into a full
+ * pool are dropped in every mode, e.g. an instance put back twice or one that was never fetched
+ * from the pool. Dropping never allows the pool to create more than its maximum number of
+ * instances.
+ * </p>
  *
  * @author J&ouml;rg Schaible
  * @author Joe Walnes
  */
 public class Pool {
-    
+
+    /**
+     * Block until an instance is available if all instances are in use.
+     *
+     * @since 1.4.6
+     */
+    public static final int BLOCK = 0;
+    /**
+     * Allocate a temporary instance if all instances are in use.
+     *
+     * @since 1.4.6
+     */
+    public static final int ALLOCATE = 1;
+    /**
+     * Throw an {@link IllegalStateException} if all instances are in use.
+     *
+     * @since 1.4.6
+     */
+    public static final int FAIL = 2;
+
+    /**
+     * Distance between the hit counters of two threads, keeps them in separate cache lines.
+     */
+    private static final int STRIDE = 8;
+
     public interface Factory {
         public Object newInstance();
     }
@@ -25,50 +64,186 @@ public class Pool {
     private final int initialPoolSize;
     private final int maxPoolSize;
     private final Factory factory;
-    private transient Object[] pool;
-    private transient int nextAvailable;
+    private final int overflow;
+    private final AtomicReferenceArray pool;
+    private final AtomicBoolean initialized = new AtomicBoolean();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLongArray hits;
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
     private transient Object mutex = new Object();
 
     public Pool(int initialPoolSize, int maxPoolSize, Factory factory) {
-        this.initialPoolSize = initialPoolSize;
+        this(initialPoolSize, maxPoolSize, factory, BLOCK);
+    }
+
+    /**
+     * Construct a pool.
+     *
+     * @param initialPoolSize the number of instances created with the pool
+     * @param maxPoolSize the maximum number of pooled instances
+     * @param factory the factory for the instances
+     * @param overflow {@link #BLOCK}, {@link #ALLOCATE} or {@link #FAIL}
+     * @since 1.4.6
+     */
+    public Pool(int initialPoolSize, int maxPoolSize, Factory factory, int overflow) {
+        if (overflow < BLOCK || overflow > FAIL) {
+            throw new IllegalArgumentException("Not a valid overflow mode");
+        }
+        this.initialPoolSize = Math.min(initialPoolSize, maxPoolSize);
         this.maxPoolSize = maxPoolSize;
         this.factory = factory;
+        this.overflow = overflow;
+        pool = new AtomicReferenceArray(maxPoolSize);
+        hits = new AtomicLongArray(Math.max(1, maxPoolSize) * STRIDE);
     }
 
     public Object fetchFromPool() {
-        Object result;
+        if (!initialized.get() && initialized.compareAndSet(false, true)) {
+            for (int i = 0; i < initialPoolSize; ++i) {
+                Object instance = create();
+                if (instance == null) {
+                    break;
+                }
+                putInPool(instance);
+            }
+        }
+        final int start = start();
+        Object result = poll(start);
+        if (result != null) {
+            hits.incrementAndGet(start * STRIDE);
+            return result;
+        }
+        misses.incrementAndGet();
+        if (overflow == ALLOCATE) {
+            return factory.newInstance();
+        }
+        result = create();
+        if (result != null) {
+            return result;
+        }
+        if (overflow == FAIL) {
+            throw new IllegalStateException("All "
+                + maxPoolSize
+                + " instances of the pool are in use");
+        }
+        waits.incrementAndGet();
         synchronized (mutex) {
-            if (pool == null) {
-                pool = new Object[maxPoolSize];
-                for (nextAvailable = initialPoolSize; nextAvailable > 0; ) {
-                    putInPool(factory.newInstance());
+            waiting.incrementAndGet();
+            try {
+                while ((result = poll(start)) == null && (result = create()) == null) {
+                    mutex.wait();
                 }
+            } catch (InterruptedException e) {
+                throw new RuntimeException("Interrupted whilst waiting " +
+                        "for a free item in the pool : " + e.getMessage());
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    public void putInPool(Object object) {
+        // reserve a slot first; only an instance put back twice or one that was never fetched
+        // from the pool can overbook it, so a dropped instance is never replaced by a new one
+        if (reserved.incrementAndGet() > maxPoolSize) {
+            reserved.decrementAndGet();
+        } else {
+            final int start = start();
+            while (!offer(start, object)) {
+                // a reservation guarantees a free slot, only a concurrent put may have taken it
+            }
+        }
+        if (waiting.get() > 0) {
+            synchronized (mutex) {
+                mutex.notify();
             }
-            while (nextAvailable == maxPoolSize) {
+        }
+    }
+
+    /**
+     * Get the number of instances fetched from the pool.
+     *
+     * @since 1.4.6
+     */
+    public long getHits() {
+        long sum = 0;
+        for (int i = 0; i < hits.length(); i += STRIDE) {
+            sum += hits.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Get the number of fetches that found no instance in the pool.
+     *
+     * @since 1.4.6
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Get the number of fetches that had to wait for an instance to be put back.
+     *
+     * @since 1.4.6
+     */
+    public long getWaits() {
+        return waits.get();
+    }
+
+    /**
+     * Create a pooled instance unless the pool has already created all its instances.
+     */
+    private Object create() {
+        for (int count = created.get(); count < maxPoolSize; count = created.get()) {
+            if (created.compareAndSet(count, count + 1)) {
                 try {
-                    mutex.wait();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException("Interrupted whilst waiting " +
-                            "for a free item in the pool : " + e.getMessage());
+                    return factory.newInstance();
+                } catch (RuntimeException e) {
+                    created.decrementAndGet();
+                    throw e;
                 }
             }
-            result = pool[nextAvailable++];
-            if (result == null) {
-                result = factory.newInstance();
-                putInPool(result);
-                ++nextAvailable;
+        }
+        return null;
+    }
+
+    private int start() {
+        if (maxPoolSize == 0) {
+            return 0;
+        }
+        int h = System.identityHashCode(Thread.currentThread());
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return (h & 0x7fffffff) % maxPoolSize;
+    }
+
+    private Object poll(int start) {
+        for (int i = 0; i < maxPoolSize; ++i) {
+            final int index = (start + i) % maxPoolSize;
+            final Object object = pool.get(index);
+            if (object != null && pool.compareAndSet(index, object, null)) {
+                reserved.decrementAndGet();
+                return object;
             }
         }
-        return result;
+        return null;
     }
 
-    protected void putInPool(Object object) {
-        synchronized (mutex) {
-            pool[--nextAvailable] = object;
-            mutex.notify();
+    private boolean offer(int start, Object object) {
+        for (int i = 0; i < maxPoolSize; ++i) {
+            final int index = (start + i) % maxPoolSize;
+            if (pool.get(index) == null && pool.compareAndSet(index, null, object)) {
+                return true;
+            }
         }
+        return false;
     }
-    
+
     private Object readResolve() {
         mutex = new Object();
         return this;
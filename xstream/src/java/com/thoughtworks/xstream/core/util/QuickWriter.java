@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -44,6 +44,26 @@ public class QuickWriter {
         pointer += len;
     }
 
+    /**
+     * Write a part of a string.
+     *
+     * @param str the string
+     * @param offset the index of the first character to write
+     * @param len the number of characters to write
+     * @since 1.4.6
+     */
+    public void write(String str, int offset, int len) {
+        if (pointer + len >= buffer.length) {
+            flush();
+            if (len > buffer.length) {
+                raw(str, offset, len);
+                return;
+            }
+        }
+        str.getChars(offset, offset + len, buffer, pointer);
+        pointer += len;
+    }
+
     public void write(char c) {
         if (pointer + 1 >= buffer.length) {
             flush();
@@ -97,6 +117,15 @@ public class QuickWriter {
         }
     }
 
+    private void raw(String str, int offset, int len) {
+        try {
+            writer.write(str, offset, len);
+            writer.flush();
+        } catch (IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
     private void raw(char c) {
         try {
             writer.write(c);
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+
+/**
+ * A Writer encoding the characters as UTF-8 directly into a byte buffer.
+ * <p>
+ * In contrast to an {@link java.io.OutputStreamWriter} no charset encoder is involved, ASCII
+ * characters are copied as they are. Malformed surrogates are replaced with a question mark as
+ * the OutputStreamWriter does. The writer is not thread-safe.
+ * </p>
+ *
+ * @since 1.4.6
+ */
+public class Utf8Writer extends Writer {
+
+    private static final byte REPLACEMENT = (byte)'?';
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count;
+    private char pendingHighSurrogate;
+    private char[] chars;
+
+    public Utf8Writer(OutputStream out) {
+        this(out, 8192);
+    }
+
+    public Utf8Writer(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, 16)];
+    }
+
+    /**
+     * Check whether a charset name denotes UTF-8.
+     *
+     * @param charsetName the name of the charset
+     * @return <code>true</code> for the UTF-8 charset
+     * @since 1.4.6
+     */
+    public static boolean isUtf8(String charsetName) {
+        return "UTF-8".equalsIgnoreCase(charsetName) || "UTF8".equalsIgnoreCase(charsetName);
+    }
+
+    public void write(int c) throws IOException {
+        final byte[] buf = buffer;
+        final char ch = (char)c;
+        int pos = count;
+        if (pos + 4 > buf.length) {
+            flushBuffer(pos);
+            pos = 0;
+        }
+        if (pendingHighSurrogate != 0) {
+            pos = encodeSurrogatePair(pendingHighSurrogate, ch, pos);
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(ch)) {
+                count = pos;
+                return;
+            }
+        }
+        if (ch < 0x80) {
+            buf[pos++] = (byte)ch;
+        } else if (ch < 0x800) {
+            buf[pos++] = (byte)(0xc0 | (ch >> 6));
+            buf[pos++] = (byte)(0x80 | (ch & 0x3f));
+        } else if (Character.isHighSurrogate(ch)) {
+            pendingHighSurrogate = ch;
+        } else if (Character.isLowSurrogate(ch)) {
+            buf[pos++] = REPLACEMENT;
+        } else {
+            buf[pos++] = (byte)(0xe0 | (ch >> 12));
+            buf[pos++] = (byte)(0x80 | ((ch >> 6) & 0x3f));
+            buf[pos++] = (byte)(0x80 | (ch & 0x3f));
+        }
+        count = pos;
+    }
+
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        final byte[] buf = buffer;
+        final int end = off + len;
+        int i = off;
+        int pos = count;
+        if (pendingHighSurrogate != 0 && i < end) {
+            if (pos + 4 > buf.length) {
+                flushBuffer(pos);
+                pos = 0;
+            }
+            pos = encodeSurrogatePair(pendingHighSurrogate, cbuf[i], pos);
+            if (Character.isLowSurrogate(cbuf[i])) {
+                ++i;
+            }
+            pendingHighSurrogate = 0;
+        }
+        while (i < end) {
+            if (pos + 4 > buf.length) {
+                flushBuffer(pos);
+                pos = 0;
+            }
+            final int limit = Math.min(end, i + buf.length - pos - 3);
+            char c;
+            while (i < limit && (c = cbuf[i]) < 0x80) {
+                buf[pos++] = (byte)c;
+                ++i;
+            }
+            if (i == limit) {
+                continue;
+            }
+            c = cbuf[i++];
+            if (c < 0x800) {
+                buf[pos++] = (byte)(0xc0 | (c >> 6));
+                buf[pos++] = (byte)(0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c)) {
+                if (i == end) {
+                    pendingHighSurrogate = c;
+                    break;
+                }
+                pos = encodeSurrogatePair(c, cbuf[i], pos);
+                if (Character.isLowSurrogate(cbuf[i])) {
+                    ++i;
+                }
+            } else if (Character.isLowSurrogate(c)) {
+                buf[pos++] = REPLACEMENT;
+            } else {
+                buf[pos++] = (byte)(0xe0 | (c >> 12));
+                buf[pos++] = (byte)(0x80 | ((c >> 6) & 0x3f));
+                buf[pos++] = (byte)(0x80 | (c & 0x3f));
+            }
+        }
+        count = pos;
+    }
+
+    public void write(String str, int off, int len) throws IOException {
+        if (chars == null) {
+            chars = new char[Math.min(buffer.length, 1024)];
+        }
+        final int end = off + len;
+        while (off < end) {
+            final int n = Math.min(end - off, chars.length);
+            str.getChars(off, off + n, chars, 0);
+            write(chars, 0, n);
+            off += n;
+        }
+    }
+
+    /**
+     * Encode a high surrogate and the following character. The low surrogate is not consumed if
+     * the character is none.
+     */
+    private int encodeSurrogatePair(char high, char low, int pos) {
+        final byte[] buf = buffer;
+        if (!Character.isLowSurrogate(low)) {
+            buf[pos++] = REPLACEMENT;
+            return pos;
+        }
+        final int codePoint = Character.toCodePoint(high, low);
+        buf[pos++] = (byte)(0xf0 | (codePoint >> 18));
+        buf[pos++] = (byte)(0x80 | ((codePoint >> 12) & 0x3f));
+        buf[pos++] = (byte)(0x80 | ((codePoint >> 6) & 0x3f));
+        buf[pos++] = (byte)(0x80 | (codePoint & 0x3f));
+        return pos;
+    }
+
+    private void flushBuffer(int pos) throws IOException {
+        if (pos > 0) {
+            out.write(buffer, 0, pos);
+        }
+        count = 0;
+    }
+
+    public void flush() throws IOException {
+        flushBuffer(count);
+        out.flush();
+    }
+
+    public void close() throws IOException {
+        if (pendingHighSurrogate != 0) {
+            if (count == buffer.length) {
+                flushBuffer(count);
+            }
+            buffer[count++] = REPLACEMENT;
+            pendingHighSurrogate = 0;
+        }
+        flushBuffer(count);
+        out.close();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2009, 2011 XStream Committers.
+ * Copyright (C) 2009, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,8 +15,14 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.Charset;
 
+import com.thoughtworks.xstream.core.util.Utf8Writer;
 import com.thoughtworks.xstream.io.naming.NameCoder;
 import com.thoughtworks.xstream.io.naming.NoNameCoder;
 
@@ -76,4 +82,26 @@ public abstract class AbstractDriver implements HierarchicalStreamDriver {
             throw new StreamException(e);
         }
     }
+
+    /**
+     * Create a Writer that encodes the characters for an OutputStream. UTF-8 is encoded
+     * directly by a {@link Utf8Writer}, any other encoding by an OutputStreamWriter.
+     * 
+     * @param out the target stream
+     * @param encoding the name of the encoding or <code>null</code> for the default encoding of
+     *            the platform
+     * @return the new Writer
+     * @throws StreamException if the encoding is not supported
+     * @since 1.4.6
+     */
+    protected Writer createStreamWriter(OutputStream out, String encoding) {
+        if (Utf8Writer.isUtf8(encoding != null ? encoding : Charset.defaultCharset().name())) {
+            return new Utf8Writer(out);
+        }
+        try {
+            return encoding != null ? new OutputStreamWriter(out, encoding) : new OutputStreamWriter(out);
+        } catch (UnsupportedEncodingException e) {
+            throw new StreamException(e);
+        }
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,15 +14,12 @@ package com.thoughtworks.xstream.io.json;
 import com.thoughtworks.xstream.io.AbstractDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
-import com.thoughtworks.xstream.io.StreamException;
 import com.thoughtworks.xstream.io.naming.NameCoder;
 
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Reader;
-import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 import java.net.URL;
 
@@ -75,12 +72,8 @@ public class JsonHierarchicalStreamDriver extends AbstractDriver {
     }
 
     public HierarchicalStreamWriter createWriter(OutputStream out) {
-        try {
-            // JSON spec requires UTF-8
-            return createWriter(new OutputStreamWriter(out, "UTF-8"));
-        } catch (UnsupportedEncodingException e) {
-            throw new StreamException(e);
-        }
+        // JSON spec requires UTF-8
+        return createWriter(createStreamWriter(out, "UTF-8"));
     }
 
 }
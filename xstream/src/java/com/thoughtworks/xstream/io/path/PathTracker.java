@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,9 +11,6 @@
  */
 package com.thoughtworks.xstream.io.path;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Maintains the current {@link Path} as a stream is moved through.
  *
@@ -37,6 +34,10 @@ import java.util.Map;
  * Path path = tracker.getPath(); // returns "/table/tr/td[2]/div"
  * </pre>
  *
+ * <p>The sibling indices are counted with primitive counters that are reused for each level. The
+ * {@link Path} is only created when requested and kept as long as the stream stays at its
+ * element, the chunks of the parent elements are shared.</p>
+ *
  * @see Path
  * @see PathTrackingReader
  * @see PathTrackingWriter
@@ -48,9 +49,10 @@ public class PathTracker {
     private int pointer;
     private int capacity;
     private String[] pathStack;
-    private Map[] indexMapStack;
-
-    private Path currentPath;
+    private int[] indexStack;
+    private String[] chunkStack;
+    private SiblingCounter[] siblingStack;
+    private Path[] pathCache;
 
     public PathTracker() {
         this(16);
@@ -64,7 +66,10 @@ public class PathTracker {
     public PathTracker(int initialCapacity) {
         this.capacity = Math.max(1, initialCapacity);
         pathStack = new String[capacity];
-        indexMapStack = new Map[capacity];
+        indexStack = new int[capacity];
+        chunkStack = new String[capacity];
+        siblingStack = new SiblingCounter[capacity];
+        pathCache = new Path[capacity];
     }
 
     /**
@@ -76,29 +81,30 @@ public class PathTracker {
         if (pointer + 1 >= capacity) {
             resizeStacks(capacity * 2);
         }
-        pathStack[pointer] = name;
-        Map indexMap = indexMapStack[pointer];
-        if (indexMap == null) {
-            indexMap = new HashMap();
-            indexMapStack[pointer] = indexMap;
-        }
-        if (indexMap.containsKey(name)) {
-            indexMap.put(name, new Integer(((Integer) indexMap.get(name)).intValue() + 1));
-        } else {
-            indexMap.put(name, new Integer(1));
+        SiblingCounter siblings = siblingStack[pointer];
+        if (siblings == null) {
+            siblings = new SiblingCounter();
+            siblingStack[pointer] = siblings;
         }
+        pathStack[pointer] = name;
+        indexStack[pointer] = siblings.increment(name);
+        chunkStack[pointer] = null;
         pointer++;
-        currentPath = null;
+        pathCache[pointer] = null;
     }
 
     /**
      * Notify the tracker that the stream has moved out of an element.
      */
     public void popElement() {
-        indexMapStack[pointer] = null;
-        pathStack[pointer] = null;
-        currentPath = null;
+        // the counters of the children start anew for the next element
+        final SiblingCounter siblings = siblingStack[pointer];
+        if (siblings != null) {
+            siblings.clear();
+        }
         pointer--;
+        pathStack[pointer] = null;
+        chunkStack[pointer] = null;
     }
     
     /**
@@ -123,18 +129,23 @@ public class PathTracker {
         if (i < -pointer || i > 0) {
             throw new ArrayIndexOutOfBoundsException(i);
         }
-        int idx = pointer + i - 1;
-        final String name; 
-        Integer integer = ((Integer) indexMapStack[idx].get(pathStack[idx]));
-        int index = integer.intValue();
-        if (index > 1) {
-            StringBuffer chunk = new StringBuffer(pathStack[idx].length() + 6);
-            chunk.append(pathStack[idx]).append('[').append(index).append(']');
-            name = chunk.toString();
-        } else {
-            name = pathStack[idx];
+        return chunk(pointer + i - 1);
+    }
+
+    private String chunk(int idx) {
+        String chunk = chunkStack[idx];
+        if (chunk == null) {
+            int index = indexStack[idx];
+            if (index > 1) {
+                StringBuffer buffer = new StringBuffer(pathStack[idx].length() + 6);
+                buffer.append(pathStack[idx]).append('[').append(index).append(']');
+                chunk = buffer.toString();
+            } else {
+                chunk = pathStack[idx];
+            }
+            chunkStack[idx] = chunk;
         }
-        return name;
+        return chunk;
     }
 
     /**
@@ -149,12 +160,21 @@ public class PathTracker {
 
     private void resizeStacks(int newCapacity) {
         String[] newPathStack = new String[newCapacity];
-        Map[] newIndexMapStack = new Map[newCapacity];
+        int[] newIndexStack = new int[newCapacity];
+        String[] newChunkStack = new String[newCapacity];
+        SiblingCounter[] newSiblingStack = new SiblingCounter[newCapacity];
+        Path[] newPathCache = new Path[newCapacity];
         int min = Math.min(capacity, newCapacity);
         System.arraycopy(pathStack, 0, newPathStack, 0, min);
-        System.arraycopy(indexMapStack, 0, newIndexMapStack, 0, min);
+        System.arraycopy(indexStack, 0, newIndexStack, 0, min);
+        System.arraycopy(chunkStack, 0, newChunkStack, 0, min);
+        System.arraycopy(siblingStack, 0, newSiblingStack, 0, min);
+        System.arraycopy(pathCache, 0, newPathCache, 0, min);
         pathStack = newPathStack;
-        indexMapStack = newIndexMapStack;
+        indexStack = newIndexStack;
+        chunkStack = newChunkStack;
+        siblingStack = newSiblingStack;
+        pathCache = newPathCache;
         capacity = newCapacity;
     }
 
@@ -162,15 +182,76 @@ public class PathTracker {
      * Current Path in stream.
      */
     public Path getPath() {
-        if (currentPath == null) {
+        Path path = pathCache[pointer];
+        if (path == null) {
             String[] chunks = new String[pointer + 1];
             chunks[0] = "";
-            for (int i = -pointer; ++i <= 0; ) {
-                final String name = peekElement(i);
-                chunks[i + pointer] = name;
+            for (int i = 0; i < pointer; ++i) {
+                chunks[i + 1] = chunk(i);
+            }
+            path = new Path(chunks);
+            pathCache[pointer] = path;
+        }
+        return path;
+    }
+
+    /**
+     * Counts the occurrences of element names within one level, reused for every parent element.
+     */
+    private static class SiblingCounter {
+        private String[] names = new String[8];
+        private int[] counts = new int[8];
+        private int[] used = new int[8];
+        private int size;
+
+        int increment(String name) {
+            final int mask = names.length - 1;
+            int i = hash(name) & mask;
+            for (String n; (n = names[i]) != null; i = (i + 1) & mask) {
+                if (n == name || n.equals(name)) {
+                    return ++counts[i];
+                }
+            }
+            names[i] = name;
+            counts[i] = 1;
+            used[size++] = i;
+            if (size * 2 > names.length) {
+                resize();
+            }
+            return 1;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; ++i) {
+                names[used[i]] = null;
             }
-            currentPath = new Path(chunks);
+            size = 0;
+        }
+
+        private void resize() {
+            final String[] oldNames = names;
+            final int[] oldCounts = counts;
+            final int[] oldUsed = used;
+            final int length = oldNames.length * 2;
+            final int mask = length - 1;
+            names = new String[length];
+            counts = new int[length];
+            used = new int[length];
+            for (int j = 0; j < size; ++j) {
+                final int oldIndex = oldUsed[j];
+                int i = hash(oldNames[oldIndex]) & mask;
+                while (names[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                names[i] = oldNames[oldIndex];
+                counts[i] = oldCounts[oldIndex];
+                used[j] = i;
+            }
+        }
+
+        private static int hash(String name) {
+            final int h = name.hashCode();
+            return h ^ (h >>> 16);
         }
-        return currentPath;
     }
 }
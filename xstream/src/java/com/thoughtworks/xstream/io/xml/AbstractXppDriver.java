@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2009, 2011 XStream Committers.
+ * Copyright (C) 2009, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -10,6 +10,7 @@
  */
 package com.thoughtworks.xstream.io.xml;
 
+import com.thoughtworks.xstream.core.util.Pool;
 import com.thoughtworks.xstream.core.util.XmlHeaderAwareReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
@@ -22,7 +23,6 @@ import org.xmlpull.v1.XmlPullParserException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
@@ -36,6 +36,8 @@ import java.io.Writer;
  */
 public abstract class AbstractXppDriver extends AbstractXmlDriver {
 
+    private volatile Pool parserPool;
+
     /**
      * Construct an AbstractXppDriver.
      * 
@@ -50,6 +52,11 @@ public abstract class AbstractXppDriver extends AbstractXmlDriver {
      * {@inheritDoc}
      */
     public HierarchicalStreamReader createReader(Reader in) {
+        final Pool pool = parserPool;
+        if (pool != null) {
+            return new PooledXppReader(
+                in, (XmlPullParser)pool.fetchFromPool(), getNameCoder(), pool);
+        }
         try {
             return new XppReader(in, createParser(), getNameCoder());
         } catch (XmlPullParserException e) {
@@ -81,7 +88,32 @@ public abstract class AbstractXppDriver extends AbstractXmlDriver {
      * {@inheritDoc}
      */
     public HierarchicalStreamWriter createWriter(OutputStream out) {
-        return createWriter(new OutputStreamWriter(out));
+        return createWriter(createStreamWriter(out, null));
+    }
+
+    /**
+     * Reuse the parsers of closed readers.
+     * <p>
+     * A reader puts its parser back into the pool when it is closed, a reader that is never
+     * closed simply keeps its parser. If all pooled parsers are in use, a new one is created
+     * temporarily. XStream closes the readers it creates for
+     * {@link com.thoughtworks.xstream.XStream#fromXML(String)}. Configure the pool before the
+     * driver is in use.
+     * </p>
+     * 
+     * @param poolSize the maximum number of pooled parsers, 0 to disable pooling
+     * @since 1.4.6
+     */
+    public void setParserPoolSize(int poolSize) {
+        parserPool = poolSize <= 0 ? null : new Pool(0, poolSize, new Pool.Factory() {
+            public Object newInstance() {
+                try {
+                    return createParser();
+                } catch (XmlPullParserException e) {
+                    throw new StreamException("Cannot create XmlPullParser");
+                }
+            }
+        }, Pool.ALLOCATE);
     }
 
     /**
@@ -91,4 +123,34 @@ public abstract class AbstractXppDriver extends AbstractXmlDriver {
      * @since 1.4
      */
     protected abstract XmlPullParser createParser() throws XmlPullParserException;
+
+    private static class PooledXppReader extends XppReader {
+
+        private final XmlPullParser parser;
+        private Pool pool;
+
+        PooledXppReader(Reader reader, XmlPullParser parser, NameCoder nameCoder, Pool pool) {
+            super(reader, parser, nameCoder);
+            this.parser = parser;
+            this.pool = pool;
+        }
+
+        public void close() {
+            try {
+                super.close();
+            } finally {
+                if (pool != null) {
+                    Pool pool = this.pool;
+                    this.pool = null;
+                    try {
+                        // release the closed reader, the parser is reset with its next input
+                        parser.setInput(null);
+                        pool.putInPool(parser);
+                    } catch (XmlPullParserException e) {
+                        // drop the parser
+                    }
+                }
+            }
+        }
+    }
 }
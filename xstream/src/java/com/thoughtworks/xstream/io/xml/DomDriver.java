@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,9 +15,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Reader;
-import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 import java.net.URL;
 
@@ -113,12 +111,6 @@ public class DomDriver extends AbstractXmlDriver {
     }
 
     public HierarchicalStreamWriter createWriter(OutputStream out) {
-        try {
-            return createWriter(encoding != null
-                ? new OutputStreamWriter(out, encoding)
-                : new OutputStreamWriter(out));
-        } catch (UnsupportedEncodingException e) {
-            throw new StreamException(e);
-        }
+        return createWriter(createStreamWriter(out, encoding));
     }
 }
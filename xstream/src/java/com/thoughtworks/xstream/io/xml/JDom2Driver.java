@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2013 XStream Committers.
+ * Copyright (C) 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,7 +14,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.URL;
@@ -98,7 +97,7 @@ public class JDom2Driver extends AbstractDriver {
     }
 
     public HierarchicalStreamWriter createWriter(OutputStream out) {
-        return new PrettyPrintWriter(new OutputStreamWriter(out));
+        return new PrettyPrintWriter(createStreamWriter(out, null));
     }
 }
 
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -69,6 +69,17 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
     private static final char[] APOS = "&apos;".toCharArray();
     private static final char[] CLOSE = "</".toCharArray();
 
+    /**
+     * The ASCII characters that are written unchanged into text and attribute values.
+     */
+    private static final boolean[] PLAIN_ASCII = new boolean[128];
+
+    static {
+        for (char c = ' '; c < 127; c++ ) {
+            PLAIN_ASCII[c] = c != '&' && c != '<' && c != '>' && c != '"' && c != '\'';
+        }
+    }
+
     private PrettyPrintWriter(
         Writer writer, int mode, char[] lineIndenter, NameCoder nameCoder,
         String newLine) {
@@ -227,74 +238,94 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
     }
 
     private void writeText(String text, boolean isAttribute) {
+        // copy runs of characters that need no escaping in bulk
         int length = text.length();
+        int start = 0;
         for (int i = 0; i < length; i++ ) {
             char c = text.charAt(i);
-            switch (c) {
-            case '\0':
-                if (mode == XML_QUIRKS) {
-                    this.writer.write(NULL);
-                } else {
-                    throw new StreamException("Invalid character 0x0 in XML stream");
-                }
-                break;
-            case '&':
-                this.writer.write(AMP);
-                break;
-            case '<':
-                this.writer.write(LT);
-                break;
-            case '>':
-                this.writer.write(GT);
-                break;
-            case '"':
-                this.writer.write(QUOT);
-                break;
-            case '\'':
-                this.writer.write(APOS);
-                break;
-            case '\r':
-                this.writer.write(CR);
+            if (c < 128
+                ? PLAIN_ASCII[c] || (!isAttribute && (c == '\n' || c == '\t'))
+                : (c < '\ud800' || c > '\udfff')
+                    && Character.isDefined(c)
+                    && !Character.isISOControl(c)) {
+                continue;
+            }
+            if (start < i) {
+                this.writer.write(text, start, i - start);
+            }
+            start = i + 1;
+            writeEscaped(c, isAttribute);
+        }
+        if (start < length) {
+            this.writer.write(text, start, length - start);
+        }
+    }
+
+    private void writeEscaped(char c, boolean isAttribute) {
+        switch (c) {
+        case '\0':
+            if (mode == XML_QUIRKS) {
+                this.writer.write(NULL);
+            } else {
+                throw new StreamException("Invalid character 0x0 in XML stream");
+            }
+            break;
+        case '&':
+            this.writer.write(AMP);
+            break;
+        case '<':
+            this.writer.write(LT);
+            break;
+        case '>':
+            this.writer.write(GT);
+            break;
+        case '"':
+            this.writer.write(QUOT);
+            break;
+        case '\'':
+            this.writer.write(APOS);
+            break;
+        case '\r':
+            this.writer.write(CR);
+            break;
+        case '\t':
+        case '\n':
+            if (!isAttribute) {
+                this.writer.write(c);
                 break;
-            case '\t':
-            case '\n':
-                if (!isAttribute) {
-                    this.writer.write(c);
-                    break;
-                }
-            default:
-                if (Character.isDefined(c) && !Character.isISOControl(c)) {
-                    if (mode != XML_QUIRKS) {
-                        if (c > '\ud7ff' && c < '\ue000') {
-                            throw new StreamException("Invalid character 0x"
-                                + Integer.toHexString(c)
-                                + " in XML stream");
-                        }
+            }
+        default:
+            if (Character.isDefined(c) && !Character.isISOControl(c)) {
+                if (mode != XML_QUIRKS) {
+                    if (c > '\ud7ff' && c < '\ue000') {
+                        throw new StreamException("Invalid character 0x"
+                            + Integer.toHexString(c)
+                            + " in XML stream");
                     }
-                    this.writer.write(c);
-                } else {
-                    if (mode == XML_1_0) {
-                        if (c < 9
-                            || c == '\u000b'
-                            || c == '\u000c'
-                            || c == '\u000e'
-                            || (c >= '\u000f' && c <= '\u001f')) {
-                            throw new StreamException("Invalid character 0x"
-                                + Integer.toHexString(c)
-                                + " in XML 1.0 stream");
-                        }
+                }
+                this.writer.write(c);
+            } else {
+                if (mode == XML_1_0) {
+                    if (c < 9
+                        || c == '\u000b'
+                        || c == '\u000c'
+                        || c == '\u000e'
+                        || (c >= '\u000f' && c <= '\u001f')) {
+                        throw new StreamException("Invalid character 0x"
+                            + Integer.toHexString(c)
+                            + " in XML 1.0 stream");
                     }
-                    if (mode != XML_QUIRKS) {
-                        if (c == '\ufffe' || c == '\uffff') {
-                            throw new StreamException("Invalid character 0x"
-                                + Integer.toHexString(c)
-                                + " in XML stream");
-                        }
+                }
+                if (mode != XML_QUIRKS) {
+                    if (c == '\ufffe' || c == '\uffff') {
+                        throw new StreamException("Invalid character 0x"
+                            + Integer.toHexString(c)
+                            + " in XML stream");
                     }
-                    this.writer.write("&#x");
-                    this.writer.write(Integer.toHexString(c));
-                    this.writer.write(';');
                 }
+                this.writer.write("&#x");
+                this.writer.write(Integer.toHexString(c));
+                this.writer.write(';');
             }
         }
     }
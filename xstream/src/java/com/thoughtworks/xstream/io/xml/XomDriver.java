@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,7 +15,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.URL;
@@ -134,6 +133,6 @@ public class XomDriver extends AbstractXmlDriver {
     }
 
     public HierarchicalStreamWriter createWriter(final OutputStream out) {
-        return new PrettyPrintWriter(new OutputStreamWriter(out), getNameCoder());
+        return new PrettyPrintWriter(createStreamWriter(out, null), getNameCoder());
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007, 2008, 2009, 2011, 2012, 2013 XStream Committers.
+ * Copyright (C) 2007, 2008, 2009, 2011, 2012, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -175,6 +175,7 @@ public class AnnotationMapper extends MapperWrapper implements AnnotationConfigu
     }
 
     private void processTypes(final Set<Class<?>> types) {
+        boolean processed = false;
         while (!types.isEmpty()) {
             final Iterator<Class<?>> iter = types.iterator();
             final Class<?> type = iter.next();
@@ -191,6 +192,7 @@ public class AnnotationMapper extends MapperWrapper implements AnnotationConfigu
     
                     addParametrizedTypes(type, types);
     
+                    processed = true;
                     processConverterAnnotations(type);
                     processAliasAnnotation(type, types);
                     processAliasTypeAnnotation(type);
@@ -226,6 +228,19 @@ public class AnnotationMapper extends MapperWrapper implements AnnotationConfigu
                 }
             }
         }
+        if (processed) {
+            typesProcessed();
+        }
+    }
+
+    /**
+     * Callback after the annotations of new types have been processed. Overwrite this method to
+     * flush caches depending on the configuration of the mappers, e.g. a {@link CachingMapper}
+     * wrapping this one.
+     * 
+     * @since 1.4.6
+     */
+    protected void typesProcessed() {
     }
 
     private void addParametrizedTypes(Type type, final Set<Class<?>> types) {
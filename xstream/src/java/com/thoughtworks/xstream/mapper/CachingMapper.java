@@ -1,39 +1,59 @@
 /*
  * Copyright (C) 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
  * style license a copy of which has been included with this distribution in
  * the LICENSE.txt file.
- * 
+ *
  * Created on 22. January 2005 by Joe Walnes
  */
 package com.thoughtworks.xstream.mapper;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.SingleValueConverter;
 import com.thoughtworks.xstream.core.Caching;
 
 /**
- * Mapper that caches which names map to which classes. Prevents repetitive searching and class loading.
+ * Mapper that caches the results of the wrapped mapper chain. Prevents repetitive searching
+ * through all the mappers and repetitive class loading.
+ * <p>
+ * All lookups that depend only on the configuration of the chain are cached, keyed by their
+ * arguments. The caches are concurrent maps, so lookups from concurrently marshalling threads
+ * do not contend on a lock. Names that cannot be resolved are cached with their exception.
+ * Lookups keyed by names that are read from the input cache at most {@value #MAX_NAMES} names
+ * per map, further names are looked up every time.
+ * </p>
+ * <p>
+ * The cache must be flushed with {@link #flushCache()} whenever the configuration of the
+ * wrapped mappers changes, XStream does so for all its configuration methods. A flush only
+ * discards the cache, the first lookup afterwards starts a new one.
+ * </p>
  *
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
  */
 public class CachingMapper extends MapperWrapper implements Caching {
 
-    private transient Map realClassCache;
+    /**
+     * Stands in for <code>null</code> keys and values, which the concurrent maps do not support.
+     */
+    private static final Object NULL = new Object();
+    private static final int MAX_NAMES = 256;
+
+    private transient volatile Cache cache;
 
     public CachingMapper(Mapper wrapped) {
         super(wrapped);
-        readResolve();
     }
 
     public Class realClass(String elementName) {
-        Object cached = realClassCache.get(elementName);
+        Cache cache = cache();
+        Object cached = cache.realClass.get(key(elementName));
         if (cached != null) {
             if (cached instanceof Class) {
                 return (Class)cached;
@@ -43,20 +63,225 @@ public class CachingMapper extends MapperWrapper implements Caching {
 
         try {
             Class result = super.realClass(elementName);
-            realClassCache.put(elementName, result);
+            cache.realClass.putIfAbsent(key(elementName), result);
             return result;
         } catch (CannotResolveClassException e) {
-            realClassCache.put(elementName, e);
+            cache.realClass.putIfAbsent(key(elementName), e);
             throw e;
         }
     }
 
+    public String serializedClass(Class type) {
+        Cache cache = cache();
+        Object cached = cache.serializedClass.get(key(type));
+        if (cached == null) {
+            cached = put(cache.serializedClass, type, super.serializedClass(type));
+        }
+        return (String)value(cached);
+    }
+
+    public String serializedMember(Class type, String memberName) {
+        ConcurrentMap members = nested(cache().serializedMember, type);
+        Object cached = members.get(key(memberName));
+        if (cached == null) {
+            cached = put(members, memberName, super.serializedMember(type, memberName));
+        }
+        return (String)value(cached);
+    }
+
+    public String realMember(Class type, String serialized) {
+        ConcurrentMap members = nested(cache().realMember, type);
+        Object cached = members.get(key(serialized));
+        if (cached == null) {
+            cached = putName(members, serialized, super.realMember(type, serialized));
+        }
+        return (String)value(cached);
+    }
+
+    public boolean isImmutableValueType(Class type) {
+        Cache cache = cache();
+        Object cached = cache.immutableValueType.get(key(type));
+        if (cached == null) {
+            cached = put(
+                cache.immutableValueType, type, super.isImmutableValueType(type)
+                    ? Boolean.TRUE
+                    : Boolean.FALSE);
+        }
+        return ((Boolean)cached).booleanValue();
+    }
+
+    public Class defaultImplementationOf(Class type) {
+        Cache cache = cache();
+        Object cached = cache.defaultImplementation.get(key(type));
+        if (cached == null) {
+            cached = put(cache.defaultImplementation, type, super.defaultImplementationOf(type));
+        }
+        return (Class)value(cached);
+    }
+
+    public String aliasForAttribute(String attribute) {
+        Cache cache = cache();
+        Object cached = cache.aliasForAttribute.get(key(attribute));
+        if (cached == null) {
+            cached = put(cache.aliasForAttribute, attribute, super.aliasForAttribute(attribute));
+        }
+        return (String)value(cached);
+    }
+
+    public String attributeForAlias(String alias) {
+        Cache cache = cache();
+        Object cached = cache.attributeForAlias.get(key(alias));
+        if (cached == null) {
+            cached = putName(cache.attributeForAlias, alias, super.attributeForAlias(alias));
+        }
+        return (String)value(cached);
+    }
+
+    public String aliasForSystemAttribute(String attribute) {
+        Cache cache = cache();
+        Object cached = cache.aliasForSystemAttribute.get(key(attribute));
+        if (cached == null) {
+            cached = put(
+                cache.aliasForSystemAttribute, attribute, super.aliasForSystemAttribute(attribute));
+        }
+        return (String)value(cached);
+    }
+
+    public String getFieldNameForItemTypeAndName(Class definedIn, Class itemType,
+        String itemFieldName) {
+        ConcurrentMap names = nested(nested(cache().fieldNameForItemType, definedIn), itemType);
+        Object cached = names.get(key(itemFieldName));
+        if (cached == null) {
+            cached = put(names, itemFieldName, super.getFieldNameForItemTypeAndName(
+                definedIn, itemType, itemFieldName));
+        }
+        return (String)value(cached);
+    }
+
+    public Class getItemTypeForItemFieldName(Class definedIn, String itemFieldName) {
+        ConcurrentMap names = nested(cache().itemTypeForItemFieldName, definedIn);
+        Object cached = names.get(key(itemFieldName));
+        if (cached == null) {
+            cached = putName(names, itemFieldName, super.getItemTypeForItemFieldName(
+                definedIn, itemFieldName));
+        }
+        return (Class)value(cached);
+    }
+
+    public ImplicitCollectionMapping getImplicitCollectionDefForFieldName(Class itemType,
+        String fieldName) {
+        ConcurrentMap fields = nested(cache().implicitCollection, itemType);
+        Object cached = fields.get(key(fieldName));
+        if (cached == null) {
+            cached = putName(fields, fieldName, super.getImplicitCollectionDefForFieldName(
+                itemType, fieldName));
+        }
+        return (ImplicitCollectionMapping)value(cached);
+    }
+
+    public boolean shouldSerializeMember(Class definedIn, String fieldName) {
+        ConcurrentMap fields = nested(cache().shouldSerializeMember, definedIn);
+        Object cached = fields.get(key(fieldName));
+        if (cached == null) {
+            cached = putName(fields, fieldName, super.shouldSerializeMember(definedIn, fieldName)
+                ? Boolean.TRUE
+                : Boolean.FALSE);
+        }
+        return ((Boolean)cached).booleanValue();
+    }
+
+    public Converter getLocalConverter(Class definedIn, String fieldName) {
+        ConcurrentMap fields = nested(cache().localConverter, definedIn);
+        Object cached = fields.get(key(fieldName));
+        if (cached == null) {
+            cached = putName(fields, fieldName, super.getLocalConverter(definedIn, fieldName));
+        }
+        return (Converter)value(cached);
+    }
+
+    public SingleValueConverter getConverterFromItemType(String fieldName, Class type,
+        Class definedIn) {
+        ConcurrentMap types = nested(nested(cache().converterFromItemType, definedIn), fieldName);
+        Object cached = types.get(key(type));
+        if (cached == null) {
+            cached = put(types, type, super.getConverterFromItemType(fieldName, type, definedIn));
+        }
+        return (SingleValueConverter)value(cached);
+    }
+
+    public SingleValueConverter getConverterFromAttribute(Class definedIn, String attribute,
+        Class type) {
+        ConcurrentMap types = nested(nested(cache().converterFromAttribute, definedIn), attribute);
+        Object cached = types.get(key(type));
+        if (cached == null) {
+            cached = put(types, type, super.getConverterFromAttribute(definedIn, attribute, type));
+        }
+        return (SingleValueConverter)value(cached);
+    }
+
     public void flushCache() {
-        realClassCache.clear();
+        // lookups still running complete against the discarded cache
+        cache = null;
+    }
+
+    private Cache cache() {
+        Cache cache = this.cache;
+        if (cache == null) {
+            // concurrent lookups may start their own cache, only one of them is kept
+            cache = new Cache();
+            this.cache = cache;
+        }
+        return cache;
+    }
+
+    private static Object key(Object key) {
+        return key == null ? NULL : key;
+    }
+
+    private static Object value(Object cached) {
+        return cached == NULL ? null : cached;
+    }
+
+    private static Object put(ConcurrentMap map, Object key, Object value) {
+        Object cached = value == null ? NULL : value;
+        Object existing = map.putIfAbsent(key(key), cached);
+        return existing != null ? existing : cached;
+    }
+
+    private static Object putName(ConcurrentMap map, Object key, Object value) {
+        if (map.size() < MAX_NAMES) {
+            return put(map, key, value);
+        }
+        return value == null ? NULL : value;
+    }
+
+    private static ConcurrentMap nested(ConcurrentMap map, Object key) {
+        ConcurrentMap nested = (ConcurrentMap)map.get(key(key));
+        if (nested == null) {
+            nested = (ConcurrentMap)put(map, key, new ConcurrentHashMap());
+        }
+        return nested;
     }
 
-    private Object readResolve() {
-        realClassCache = Collections.synchronizedMap(new HashMap(128));
-        return this;
+    /**
+     * The cached lookups, replaced as a whole when flushed.
+     */
+    private static class Cache {
+        final ConcurrentMap realClass = new ConcurrentHashMap(128);
+        final ConcurrentMap serializedClass = new ConcurrentHashMap(128);
+        final ConcurrentMap serializedMember = new ConcurrentHashMap();
+        final ConcurrentMap realMember = new ConcurrentHashMap();
+        final ConcurrentMap immutableValueType = new ConcurrentHashMap();
+        final ConcurrentMap defaultImplementation = new ConcurrentHashMap();
+        final ConcurrentMap aliasForAttribute = new ConcurrentHashMap();
+        final ConcurrentMap attributeForAlias = new ConcurrentHashMap();
+        final ConcurrentMap aliasForSystemAttribute = new ConcurrentHashMap();
+        final ConcurrentMap fieldNameForItemType = new ConcurrentHashMap();
+        final ConcurrentMap itemTypeForItemFieldName = new ConcurrentHashMap();
+        final ConcurrentMap implicitCollection = new ConcurrentHashMap();
+        final ConcurrentMap shouldSerializeMember = new ConcurrentHashMap();
+        final ConcurrentMap localConverter = new ConcurrentHashMap();
+        final ConcurrentMap converterFromItemType = new ConcurrentHashMap();
+        final ConcurrentMap converterFromAttribute = new ConcurrentHashMap();
     }
 }
@@ -0,0 +1,80 @@
+package com.thoughtworks.xstream.whitelist;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter striped over threads, so concurrent increments rarely contend on the same cell.
+ *
+ * Increments are cheap, reading the sum walks all cells and is not an atomic snapshot.
+ */
+class StripedCounter
+{
+  /**
+   * Longs per cell when padded, keeping each cell on its own 64 byte cache line.
+   */
+  private static final int PAD = 8;
+
+  private static final int DEFAULT_STRIPES = stripesFor(Runtime.getRuntime().availableProcessors());
+
+  private final AtomicLongArray cells;
+
+  private final int mask;
+
+  private final int spread;
+
+  /**
+   * Counter with one padded cell per available processor, for heavily shared counters.
+   */
+  StripedCounter() {
+    this(DEFAULT_STRIPES, true);
+  }
+
+  /**
+   * @param stripes number of cells, a power of two
+   * @param padded  true to put each cell on its own cache line
+   */
+  StripedCounter(final int stripes, final boolean padded) {
+    this.spread = padded ? PAD : 1;
+    this.mask = stripes - 1;
+    this.cells = new AtomicLongArray(stripes * spread);
+  }
+
+  /**
+   * Returns the new count of the cell of the current thread, not the sum.
+   */
+  long increment() {
+    return cells.incrementAndGet(cell());
+  }
+
+  void add(final long delta) {
+    cells.addAndGet(cell(), delta);
+  }
+
+  private int cell() {
+    long id = Thread.currentThread().getId();
+    int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return ((hash >>> 16) & mask) * spread;
+  }
+
+  long sum() {
+    long sum = 0;
+    for (int i = 0; i < cells.length(); i += spread) {
+      sum += cells.get(i);
+    }
+    return sum;
+  }
+
+  void reset() {
+    for (int i = 0; i < cells.length(); i += spread) {
+      cells.set(i, 0);
+    }
+  }
+
+  static int stripesFor(final int parallelism) {
+    int stripes = 1;
+    while (stripes < parallelism) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+}
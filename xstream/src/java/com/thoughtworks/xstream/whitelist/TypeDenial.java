@@ -0,0 +1,72 @@
+package com.thoughtworks.xstream.whitelist;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.thoughtworks.xstream.whitelist.TypeWhitelist.TypeNotAllowedException;
+import com.thoughtworks.xstream.whitelist.TypeWhitelistListener.Reason;
+
+/**
+ * Memoized denial of a type, holding the warning rate-limit state.
+ */
+class TypeDenial
+  extends TypeVerdict
+{
+  private final String className;
+
+  private final AtomicLong nextWarning = new AtomicLong();
+
+  private final AtomicInteger suppressed = new AtomicInteger();
+
+  TypeDenial(final String className) {
+    super(Reason.DENIED, null);
+    this.className = className;
+  }
+
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Returns a new exception for this denial; it is not shared, so suppressed exceptions or a cause added by the
+   * catching code stay with this throw.
+   */
+  public TypeNotAllowedException newException() {
+    return new StacklessTypeNotAllowedException(className);
+  }
+
+  /**
+   * Returns true if a warning should be logged now, otherwise counts the warning as suppressed.
+   */
+  boolean shouldWarn(final long now, final long interval) {
+    long next = nextWarning.get();
+    if (now >= next && nextWarning.compareAndSet(next, now + interval)) {
+      return true;
+    }
+    suppressed.incrementAndGet();
+    return false;
+  }
+
+  /**
+   * Returns the number of warnings suppressed since the last call.
+   */
+  int drainSuppressed() {
+    return suppressed.getAndSet(0);
+  }
+
+  /**
+   * Exception without stack trace, cheap to create for every denied lookup.
+   */
+  private static class StacklessTypeNotAllowedException
+    extends TypeNotAllowedException
+  {
+    StacklessTypeNotAllowedException(final String className) {
+      super(className);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+}
@@ -0,0 +1,336 @@
+package com.thoughtworks.xstream.whitelist;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.thoughtworks.xstream.whitelist.TypeWhitelistListener.Reason;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable snapshot of the {@link TypeWhitelist} rules.
+ *
+ * Mutation creates a new snapshot via {@link #with(Collection, Collection, Collection)}.  The compiled form is built
+ * on first use: allowed packages are held in a character trie walked directly over the class name, and all plain
+ * allowed patterns are combined into a single alternation so a class name is matched in one pass.  Verdicts are
+ * memoized per class name for the lifetime of the snapshot, denied names with a preallocated {@link TypeDenial}.
+ */
+class TypeRules
+{
+  /**
+   * Detects back-references and named groups, which can not be combined: group numbers shift in the alternation and
+   * a group name may only be declared once in a pattern.
+   */
+  private static final Pattern NOT_COMBINABLE = Pattern.compile("\\\\[1-9]|\\\\k<|\\(\\?<[a-zA-Z]");
+
+  private final ImmutableSet<String> types;
+
+  private final ImmutableSet<String> packages;
+
+  private final ImmutableList<Pattern> patterns;
+
+  private final int cacheSize;
+
+  /**
+   * Compiled rules; racing threads may compile more than once, which is harmless as the result is equivalent.
+   */
+  private volatile Compiled compiled;
+
+  TypeRules(final int cacheSize) {
+    this(ImmutableSet.<String>of(), ImmutableSet.<String>of(), ImmutableList.<Pattern>of(), cacheSize);
+  }
+
+  private TypeRules(final ImmutableSet<String> types,
+                    final ImmutableSet<String> packages,
+                    final ImmutableList<Pattern> patterns,
+                    final int cacheSize)
+  {
+    this.types = types;
+    this.packages = packages;
+    this.patterns = patterns;
+    this.cacheSize = cacheSize;
+  }
+
+  public ImmutableSet<String> getTypes() {
+    return types;
+  }
+
+  public ImmutableSet<String> getPackages() {
+    return packages;
+  }
+
+  public ImmutableList<Pattern> getPatterns() {
+    return patterns;
+  }
+
+  /**
+   * Returns a snapshot with the given rules added, or this snapshot if nothing would change.
+   */
+  TypeRules with(final Collection<String> types,
+                 final Collection<String> packages,
+                 final Collection<Pattern> patterns)
+  {
+    checkNotNull(types);
+    checkNotNull(packages);
+    checkNotNull(patterns);
+
+    if (this.types.containsAll(types) && this.packages.containsAll(packages) && patterns.isEmpty()) {
+      return this;
+    }
+    return new TypeRules(
+        ImmutableSet.<String>builder().addAll(this.types).addAll(types).build(),
+        ImmutableSet.<String>builder().addAll(this.packages).addAll(packages).build(),
+        ImmutableList.<Pattern>builder().addAll(this.patterns).addAll(patterns).build(),
+        cacheSize
+    );
+  }
+
+  public boolean isAllowed(final String className) {
+    TypeVerdict verdict = cached(className);
+    if (verdict == null) {
+      verdict = resolve(className);
+    }
+    return verdict.isAllowed();
+  }
+
+  /**
+   * Returns the memoized verdict for the given class name, or {@code null} if not yet resolved.
+   */
+  TypeVerdict cached(final String className) {
+    return compiled().cached(className);
+  }
+
+  /**
+   * Resolves and memoizes the verdict for the given class name.
+   */
+  TypeVerdict resolve(final String className) {
+    return compiled().resolve(className);
+  }
+
+  private Compiled compiled() {
+    Compiled current = compiled;
+    if (current == null) {
+      current = new Compiled(this);
+      compiled = current;
+    }
+    return current;
+  }
+
+  @Override
+  public String toString() {
+    return "allowedTypes=" + types +
+        ", allowedPackages=" + packages +
+        ", allowedPatterns=" + patterns;
+  }
+
+  /**
+   * Compiled form of a {@link TypeRules} snapshot.
+   */
+  private static class Compiled
+  {
+    private final TypeVerdict typeVerdict = new TypeVerdict(Reason.TYPE, null);
+
+    private final TypeVerdict packageVerdict = new TypeVerdict(Reason.PACKAGE, null);
+
+    private final ImmutableSet<String> types;
+
+    private final PackageTrie packages = new PackageTrie();
+
+    private final boolean defaultPackage;
+
+    private final Pattern combinedPattern;
+
+    /**
+     * Verdict per alternative of the combined pattern, indexed by the group number which captures the alternative.
+     */
+    private final TypeVerdict[] combinedVerdicts;
+
+    private final Pattern[] separatePatterns;
+
+    private final TypeVerdict[] separateVerdicts;
+
+    private final ConcurrentMap<String, TypeVerdict> verdicts = new ConcurrentHashMap<String, TypeVerdict>();
+
+    private final AtomicInteger verdictCount = new AtomicInteger();
+
+    private final int cacheSize;
+
+    Compiled(final TypeRules rules) {
+      this.types = rules.types;
+      this.cacheSize = rules.cacheSize;
+
+      boolean defaultPackage = false;
+      for (String name : rules.packages) {
+        if (TypeWhitelist.DEFAULT_PACKAGE_NAME.equals(name)) {
+          defaultPackage = true;
+        }
+        else {
+          packages.add(name);
+        }
+      }
+      this.defaultPackage = defaultPackage;
+
+      // each alternative is captured in its own group, following the groups of all alternatives before it
+      StringBuilder combined = new StringBuilder();
+      List<TypeVerdict> combinedVerdicts = Lists.newArrayList();
+      combinedVerdicts.add(null);
+      List<Pattern> separate = Lists.newArrayList();
+      for (Pattern pattern : rules.patterns) {
+        if (isCombinable(pattern)) {
+          if (combined.length() != 0) {
+            combined.append('|');
+          }
+          combined.append('(').append(pattern.pattern()).append(')');
+          combinedVerdicts.add(new TypeVerdict(Reason.PATTERN, pattern));
+          for (int i = pattern.matcher("").groupCount(); i > 0; i--) {
+            combinedVerdicts.add(null);
+          }
+        }
+        else {
+          separate.add(pattern);
+        }
+      }
+      this.combinedPattern = combined.length() == 0 ? null : Pattern.compile(combined.toString());
+      this.combinedVerdicts = combinedVerdicts.toArray(new TypeVerdict[combinedVerdicts.size()]);
+      this.separatePatterns = separate.toArray(new Pattern[separate.size()]);
+      this.separateVerdicts = new TypeVerdict[separatePatterns.length];
+      for (int i = 0; i < separatePatterns.length; i++) {
+        separateVerdicts[i] = new TypeVerdict(Reason.PATTERN, separatePatterns[i]);
+      }
+    }
+
+    /**
+     * Check if a pattern can be joined into the alternation. Besides flags and back-references, an unterminated
+     * quote or a comment in comments mode would swallow the closing parenthesis of its group, so the pattern must
+     * compile on its own wrapped in a group.
+     */
+    private static boolean isCombinable(final Pattern pattern) {
+      if (pattern.flags() != 0 || NOT_COMBINABLE.matcher(pattern.pattern()).find()) {
+        return false;
+      }
+      try {
+        Pattern wrapped = Pattern.compile("(" + pattern.pattern() + ")");
+        return wrapped.matcher("").groupCount() == pattern.matcher("").groupCount() + 1;
+      }
+      catch (PatternSyntaxException e) {
+        return false;
+      }
+    }
+
+    TypeVerdict cached(final String className) {
+      return verdicts.get(className);
+    }
+
+    TypeVerdict resolve(final String className) {
+      TypeVerdict verdict = decide(className);
+      // bound the memo; once full start over rather than tracking recency on the read path
+      if (verdictCount.incrementAndGet() > cacheSize) {
+        verdicts.clear();
+        verdictCount.set(0);
+      }
+      TypeVerdict existing = verdicts.putIfAbsent(className, verdict);
+      return existing != null ? existing : verdict;
+    }
+
+    private TypeVerdict decide(final String className) {
+      if (types.contains(className)) {
+        return typeVerdict;
+      }
+
+      int end = className.lastIndexOf('.');
+      if (end == -1 ? defaultPackage : packages.contains(className, end)) {
+        return packageVerdict;
+      }
+
+      if (combinedPattern != null) {
+        Matcher matcher = combinedPattern.matcher(className);
+        if (matcher.matches()) {
+          for (int group = 1; group < combinedVerdicts.length; group++) {
+            if (combinedVerdicts[group] != null && matcher.start(group) != -1) {
+              return combinedVerdicts[group];
+            }
+          }
+        }
+      }
+      for (int i = 0; i < separatePatterns.length; i++) {
+        if (separatePatterns[i].matcher(className).matches()) {
+          return separateVerdicts[i];
+        }
+      }
+
+      return new TypeDenial(className);
+    }
+  }
+
+  /**
+   * Character trie of package names; only exact package names match, sub-packages are not implied.
+   */
+  private static class PackageTrie
+  {
+    private final Node root = new Node();
+
+    void add(final String name) {
+      Node node = root;
+      for (int i = 0; i < name.length(); i++) {
+        node = node.childFor(name.charAt(i));
+      }
+      node.terminal = true;
+    }
+
+    /**
+     * Returns true if the first {@code length} characters of {@code name} are an allowed package.
+     */
+    boolean contains(final String name, final int length) {
+      Node node = root;
+      for (int i = 0; i < length && node != null; i++) {
+        node = node.child(name.charAt(i));
+      }
+      return node != null && node.terminal;
+    }
+  }
+
+  private static class Node
+  {
+    private char[] keys = new char[0];
+
+    private Node[] children = new Node[0];
+
+    private boolean terminal;
+
+    Node child(final char c) {
+      int i = Arrays.binarySearch(keys, c);
+      return i < 0 ? null : children[i];
+    }
+
+    Node childFor(final char c) {
+      int i = Arrays.binarySearch(keys, c);
+      if (i >= 0) {
+        return children[i];
+      }
+
+      // keep keys sorted for binary search
+      int at = -i - 1;
+      char[] newKeys = new char[keys.length + 1];
+      Node[] newChildren = new Node[children.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, at);
+      System.arraycopy(children, 0, newChildren, 0, at);
+      newKeys[at] = c;
+      newChildren[at] = new Node();
+      System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+      System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+      keys = newKeys;
+      children = newChildren;
+      return newChildren[at];
+    }
+  }
+}
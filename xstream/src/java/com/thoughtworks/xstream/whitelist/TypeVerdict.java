@@ -0,0 +1,37 @@
+package com.thoughtworks.xstream.whitelist;
+
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import com.thoughtworks.xstream.whitelist.TypeWhitelistListener.Reason;
+
+/**
+ * Memoized decision for a class name.  Allowed verdicts are shared; denials are per class name.
+ *
+ * @see TypeDenial
+ */
+class TypeVerdict
+{
+  private final Reason reason;
+
+  private final Pattern pattern;
+
+  TypeVerdict(final Reason reason, @Nullable final Pattern pattern) {
+    this.reason = reason;
+    this.pattern = pattern;
+  }
+
+  public Reason getReason() {
+    return reason;
+  }
+
+  @Nullable
+  public Pattern getPattern() {
+    return pattern;
+  }
+
+  public boolean isAllowed() {
+    return reason != Reason.DENIED;
+  }
+}
@@ -4,14 +4,16 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
+
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 import com.thoughtworks.xstream.mapper.CannotResolveClassException;
+import com.thoughtworks.xstream.whitelist.TypeWhitelistListener.Reason;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,16 +40,35 @@ public class TypeWhitelist
   @VisibleForTesting
   public static final SystemProperty allowedPatternsProperty = new SystemProperty(TypeWhitelist.class, "allowedPatterns");
 
-  private final Set<String> allowedTypes = Sets.newHashSet();
+  @VisibleForTesting
+  public static final SystemProperty cacheSizeProperty = new SystemProperty(TypeWhitelist.class, "cacheSize");
+
+  private static final int DEFAULT_CACHE_SIZE = 2048;
+
+  @VisibleForTesting
+  public static final SystemProperty deniedWarningIntervalProperty =
+      new SystemProperty(TypeWhitelist.class, "deniedWarningInterval");
+
+  private static final int DEFAULT_DENIED_WARNING_INTERVAL = 60 * 1000;
+
+  private static final TypeVerdict ALL_ALLOWED = new TypeVerdict(Reason.ALL, null);
 
-  private final Set<String> allowedPackages = Sets.newHashSet();
+  private final AtomicReference<TypeRules> rules;
 
-  private final List<Pattern> allowedPatterns = Lists.newArrayList();
+  private volatile boolean allowAll;
 
-  private boolean allowAll;
+  @Nullable
+  private volatile TypeWhitelistListener listener;
+
+  /**
+   * Minimum milliseconds between warnings for the same denied type.
+   */
+  private final long deniedWarningInterval;
 
   public TypeWhitelist() {
     setAllowAll(allowAllProperty.get(Boolean.class, false));
+    deniedWarningInterval = deniedWarningIntervalProperty.get(Integer.class, DEFAULT_DENIED_WARNING_INTERVAL);
+    rules = new AtomicReference<TypeRules>(new TypeRules(cacheSizeProperty.get(Integer.class, DEFAULT_CACHE_SIZE)));
     configureDefaults();
   }
 
@@ -55,9 +76,7 @@ public class TypeWhitelist
   public String toString() {
     return getClass().getSimpleName() + "{" +
         "allowAll=" + allowAll +
-        ", allowedTypes=" + allowedTypes +
-        ", allowedPackages=" + allowedPackages +
-        ", allowedPatterns=" + allowedPatterns +
+        ", " + rules.get() +
         '}';
   }
 
@@ -65,37 +84,50 @@ public class TypeWhitelist
   void configureDefaults() {
     final boolean trace = log.isTraceEnabled();
 
-    // configure default allowed types from system properties
-    allowedTypes.addAll(allowedTypesProperty.asList());
-    if (trace && !allowedTypes.isEmpty()) {
+    // configure default allowed types, packages and patterns from system properties
+    List<String> types = allowedTypesProperty.asList();
+    List<String> packages = allowedPackagesProperty.asList();
+    List<Pattern> patterns = Lists.transform(allowedPatternsProperty.asList(), new Function<String, Pattern>()
+    {
+      public Pattern apply(final String input) {
+        return compilePattern(input);
+      }
+    });
+
+    if (trace && !types.isEmpty()) {
       log.trace("Default allowed types:");
-      for (String name : sort(allowedTypes)) {
+      for (String name : sort(types)) {
         log.trace("  {}", name);
       }
     }
-
-    // configure default allowed packages from system properties
-    allowedPackages.addAll(allowedPackagesProperty.asList());
-    if (trace && !allowedPackages.isEmpty()) {
+    if (trace && !packages.isEmpty()) {
       log.trace("Default allowed packages:");
-      for (String name : sort(allowedPackages)) {
+      for (String name : sort(packages)) {
         log.trace("  {}", name);
       }
     }
-
-    // configure default allowed patterns from system properties
-    allowedPatterns.addAll(Lists.transform(allowedPatternsProperty.asList(), new Function<String, Pattern>()
-    {
-      public Pattern apply(final String input) {
-        return compilePattern(input);
-      }
-    }));
-    if (trace && !allowedPatterns.isEmpty()) {
+    if (trace && !patterns.isEmpty()) {
       log.trace("Default allowed patterns:");
-      for (Pattern pattern : allowedPatterns) {
+      for (Pattern pattern : patterns) {
         log.trace("  {}", pattern);
       }
     }
+
+    publish(types, packages, patterns);
+  }
+
+  @Nullable
+  public TypeWhitelistListener getListener() {
+    return listener;
+  }
+
+  /**
+   * Set the listener receiving every decision, or {@code null} to disable.
+   *
+   * @see TypeWhitelistMetrics
+   */
+  public void setListener(@Nullable final TypeWhitelistListener listener) {
+    this.listener = listener;
   }
 
   public boolean isAllowAll() {
@@ -116,80 +148,155 @@ public class TypeWhitelist
   }
 
   public Set<String> getAllowedTypes() {
-    return ImmutableSet.copyOf(allowedTypes);
+    return rules.get().getTypes();
   }
 
   public Set<String> getAllowedPackages() {
-    return ImmutableSet.copyOf(allowedPackages);
+    return rules.get().getPackages();
   }
 
-  public void allowType(final String... names) {
-    if (names == null) {
-      return;
-    }
-    for (String name : names) {
-      if (name != null) {
-        allowedTypes.add(name);
-        log.trace("Allow type: {}", name);
-      }
+  public List<Pattern> getAllowedPatterns() {
+    return rules.get().getPatterns();
+  }
+
+  /**
+   * Atomically replace the current rules with a snapshot including the given additions.
+   */
+  private void publish(final Collection<String> types,
+                       final Collection<String> packages,
+                       final Collection<Pattern> patterns)
+  {
+    TypeRules current, next;
+    do {
+      current = rules.get();
+      next = current.with(types, packages, patterns);
     }
+    while (current != next && !rules.compareAndSet(current, next));
   }
 
-  public void allowType(final Class... types) {
-    if (types == null) {
-      return;
+  /**
+   * Start a bulk registration of rules, which are all published at once by {@link Allow#apply()}.
+   */
+  public Allow allow() {
+    return new Allow();
+  }
+
+  /**
+   * Collects rules to be added to the white-list in a single update.
+   *
+   * @see #allow()
+   */
+  public class Allow
+  {
+    private final List<String> types = Lists.newArrayList();
+
+    private final List<String> packages = Lists.newArrayList();
+
+    private final List<Pattern> patterns = Lists.newArrayList();
+
+    private Allow() {
+      // use TypeWhitelist.allow()
     }
-    for (Class type : types) {
-      if (type != null) {
-        allowType(type.getName());
+
+    public Allow types(final String... names) {
+      if (names != null) {
+        for (String name : names) {
+          if (name != null) {
+            types.add(name);
+            log.trace("Allow type: {}", name);
+          }
+        }
       }
+      return this;
     }
-  }
 
-  public void allowPackage(final String... names) {
-    if (names == null) {
-      return;
-    }
-    for (String name : names) {
-      if (name != null) {
-        allowedPackages.add(name);
-        log.trace("Allow package: {}", name);
+    public Allow types(final Class... classes) {
+      if (classes != null) {
+        for (Class type : classes) {
+          if (type != null) {
+            types(type.getName());
+          }
+        }
       }
+      return this;
     }
-  }
 
-  public void allowPackage(final Package... packages) {
-    if (packages == null) {
-      return;
+    public Allow packages(final String... names) {
+      if (names != null) {
+        for (String name : names) {
+          if (name != null) {
+            packages.add(name);
+            log.trace("Allow package: {}", name);
+          }
+        }
+      }
+      return this;
     }
-    for (Package pkg : packages) {
-      if (pkg != null) {
-        allowPackage(pkg.getName());
+
+    public Allow packages(final Package... pkgs) {
+      if (pkgs != null) {
+        for (Package pkg : pkgs) {
+          if (pkg != null) {
+            packages(pkg.getName());
+          }
+        }
       }
+      return this;
     }
-  }
 
-  public void allowPattern(final Pattern... patterns) {
-    if (patterns == null) {
-      return;
+    public Allow patterns(final Pattern... compiled) {
+      if (compiled != null) {
+        for (Pattern pattern : compiled) {
+          if (pattern != null) {
+            patterns.add(pattern);
+            log.trace("Allow pattern: {}", pattern);
+          }
+        }
+      }
+      return this;
     }
-    for (Pattern pattern : patterns) {
-      if (pattern != null) {
-        allowedPatterns.add(pattern);
-        log.trace("Allow pattern: {}", pattern);
+
+    public Allow patterns(final String... regexes) {
+      if (regexes != null) {
+        for (String pattern : regexes) {
+          if (pattern != null) {
+            patterns(compilePattern(pattern));
+          }
+        }
       }
+      return this;
     }
+
+    /**
+     * Publish all collected rules to the white-list.
+     */
+    public void apply() {
+      publish(types, packages, patterns);
+    }
+  }
+
+  public void allowType(final String... names) {
+    allow().types(names).apply();
+  }
+
+  public void allowType(final Class... types) {
+    allow().types(types).apply();
+  }
+
+  public void allowPackage(final String... names) {
+    allow().packages(names).apply();
+  }
+
+  public void allowPackage(final Package... packages) {
+    allow().packages(packages).apply();
+  }
+
+  public void allowPattern(final Pattern... patterns) {
+    allow().patterns(patterns).apply();
   }
 
   public void allowPattern(final String... patterns) {
-    if (patterns == null) {
-      return;
-    }
-    for (String pattern : patterns) {
-      if (pattern != null) {
-        allowPattern(compilePattern(pattern));
-      }
-    }
+    allow().patterns(patterns).apply();
   }
 
   @VisibleForTesting
@@ -201,33 +308,59 @@ public class TypeWhitelist
   public boolean isAllowed(final String className) {
     checkNotNull(className);
 
-    if (allowAll) {
-      log.trace("All types allowed: {}", className);
+    TypeVerdict verdict = verdict(className);
+    if (verdict.isAllowed()) {
+      if (log.isTraceEnabled()) {
+        log.trace(verdict == ALL_ALLOWED ? "All types allowed: {}" : "Type allowed: {}", className);
+      }
       return true;
     }
 
-    log.trace("Checking type allowance: {}", className);
-    if (allowedTypes.contains(className)) {
-      log.trace("Type allowed: {}", className);
-      return true;
+    warnDenied((TypeDenial) verdict);
+    return false;
+  }
+
+  /**
+   * Returns the verdict for the given class name from the current rules and reports it to the listener.  This is the
+   * only place decisions are reported, so every check is reported once.
+   */
+  private TypeVerdict verdict(final String className) {
+    TypeVerdict verdict;
+    boolean cached;
+    if (allowAll) {
+      // all types allowed bypasses the rules, so there is no cache involved
+      verdict = ALL_ALLOWED;
+      cached = false;
+    }
+    else {
+      TypeRules current = rules.get();
+      verdict = current.cached(className);
+      cached = verdict != null;
+      if (!cached) {
+        verdict = current.resolve(className);
+      }
     }
 
-    String packageName = parsePackageName(className);
-    log.trace("Checking package allowance: {}", packageName);
-    if (allowedPackages.contains(packageName)) {
-      log.trace("Package allowed: {}", packageName);
-      return true;
+    TypeWhitelistListener listener = this.listener;
+    if (listener != null) {
+      listener.checked(className, verdict.getReason(), verdict.getPattern(), cached);
     }
+    return verdict;
+  }
 
-    for (Pattern pattern : allowedPatterns) {
-      if (pattern.matcher(className).matches()) {
-        log.trace("Type allowed: {}, by pattern: {}", className, pattern);
-        return true;
+  /**
+   * Warn about a denied type, at most once per interval for the same type.
+   */
+  private void warnDenied(final TypeDenial denial) {
+    if (log.isWarnEnabled() && denial.shouldWarn(System.currentTimeMillis(), deniedWarningInterval)) {
+      int suppressed = denial.drainSuppressed();
+      if (suppressed == 0) {
+        log.warn("Type NOT allowed: {}", denial.getClassName());
+      }
+      else {
+        log.warn("Type NOT allowed: {}, {} similar warnings suppressed", denial.getClassName(), suppressed);
       }
     }
-
-    log.warn("Type NOT allowed: {}", className);
-    return false;
   }
 
   @VisibleForTesting
@@ -249,6 +382,8 @@ public class TypeWhitelist
   /**
    * Throw when type is not allowed.
    *
+   * Instances thrown by {@link #ensureAllowed(String)} carry no stack trace.
+   *
    * @see #ensureAllowed(String)
    * @see #ensureAllowed(Class)
    */
@@ -262,9 +397,11 @@ public class TypeWhitelist
 
   public void ensureAllowed(final String name) throws TypeNotAllowedException {
     checkNotNull(name);
-    if (!isAllowed(name)) {
-      log.warn("Type NOT allowed: {}", name);
-      throw new TypeNotAllowedException(name);
+    TypeVerdict verdict = verdict(name);
+    if (!verdict.isAllowed()) {
+      TypeDenial denial = (TypeDenial) verdict;
+      warnDenied(denial);
+      throw denial.newException();
     }
   }
 
@@ -0,0 +1,55 @@
+package com.thoughtworks.xstream.whitelist;
+
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * Receives every {@link TypeWhitelist} decision, for metrics and instrumentation.
+ *
+ * Called on the deserialization hot path from any thread; implementations must be thread-safe and cheap.
+ *
+ * @see TypeWhitelist#setListener(TypeWhitelistListener)
+ * @see TypeWhitelistMetrics
+ */
+public interface TypeWhitelistListener
+{
+  /**
+   * Why a type was allowed or denied.
+   */
+  enum Reason
+  {
+    /**
+     * All types are allowed.
+     */
+    ALL,
+
+    /**
+     * Allowed by exact type name.
+     */
+    TYPE,
+
+    /**
+     * Allowed by package name.
+     */
+    PACKAGE,
+
+    /**
+     * Allowed by a pattern.
+     */
+    PATTERN,
+
+    /**
+     * Not allowed.
+     */
+    DENIED
+  }
+
+  /**
+   * @param className the checked class name
+   * @param reason    why the class was allowed or denied
+   * @param pattern   the matching pattern for {@link Reason#PATTERN}, otherwise {@code null}
+   * @param cached    true if the verdict was memoized, false if it was computed
+   */
+  void checked(String className, Reason reason, @Nullable Pattern pattern, boolean cached);
+}
@@ -0,0 +1,319 @@
+package com.thoughtworks.xstream.whitelist;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link TypeWhitelistListener} counting decisions of a {@link TypeWhitelist}, optionally exposed over JMX.
+ *
+ * Counters are striped so recording adds no contention to the deserialization hot path.  Per class name counts are
+ * kept for at most {@code maxTrackedTypes} names.  Once the limit is reached, an untracked name periodically replaces
+ * the least checked name and inherits its count, like the space-saving algorithm, so the ranking is approximate but
+ * follows the names checked most.
+ *
+ * Frequently checked types allowed by pattern are candidates to allow by exact type instead, which is cheaper.
+ */
+public class TypeWhitelistMetrics
+    implements TypeWhitelistListener, TypeWhitelistMetricsMBean
+{
+  private static final Logger log = LoggerFactory.getLogger(TypeWhitelistMetrics.class);
+
+  public static final String JMX_DOMAIN = "com.thoughtworks.xstream.whitelist";
+
+  private static final int DEFAULT_MAX_TRACKED_TYPES = 1024;
+
+  private static final int DEFAULT_TOP_TYPES = 20;
+
+  /**
+   * Stripes of per class name counters; these are many, so unpadded and few.
+   */
+  private static final int TYPE_STRIPES = 4;
+
+  /**
+   * Checks of untracked names per stripe between two replacements of the least checked name.
+   */
+  private static final int REPLACE_INTERVAL = 256;
+
+  private final StripedCounter allowedAll = new StripedCounter();
+
+  private final StripedCounter allowedType = new StripedCounter();
+
+  private final StripedCounter allowedPackage = new StripedCounter();
+
+  private final StripedCounter allowedPattern = new StripedCounter();
+
+  private final StripedCounter denied = new StripedCounter();
+
+  private final StripedCounter cacheHit = new StripedCounter();
+
+  private final StripedCounter cacheMiss = new StripedCounter();
+
+  private final ConcurrentMap<String, StripedCounter> patterns = new ConcurrentHashMap<String, StripedCounter>();
+
+  private final ConcurrentMap<String, StripedCounter> types = new ConcurrentHashMap<String, StripedCounter>();
+
+  private final AtomicInteger trackedPatterns = new AtomicInteger();
+
+  private final AtomicInteger trackedTypes = new AtomicInteger();
+
+  private final StripedCounter untrackedTypes = new StripedCounter();
+
+  private final AtomicBoolean replacing = new AtomicBoolean();
+
+  private final int maxTrackedTypes;
+
+  private final int topTypes;
+
+  @Nullable
+  private volatile ObjectName objectName;
+
+  public TypeWhitelistMetrics() {
+    this(DEFAULT_MAX_TRACKED_TYPES, DEFAULT_TOP_TYPES);
+  }
+
+  /**
+   * @param maxTrackedTypes maximum number of class names counted individually
+   * @param topTypes        number of class names reported by {@link #getTopCheckedTypes()}
+   */
+  public TypeWhitelistMetrics(final int maxTrackedTypes, final int topTypes) {
+    checkArgument(maxTrackedTypes >= 0);
+    checkArgument(topTypes >= 0);
+    this.maxTrackedTypes = maxTrackedTypes;
+    this.topTypes = topTypes;
+  }
+
+  public void checked(final String className,
+                      final Reason reason,
+                      @Nullable final Pattern pattern,
+                      final boolean cached)
+  {
+    switch (reason) {
+      case ALL:
+        allowedAll.increment();
+        break;
+      case TYPE:
+        allowedType.increment();
+        break;
+      case PACKAGE:
+        allowedPackage.increment();
+        break;
+      case PATTERN:
+        allowedPattern.increment();
+        if (pattern != null) {
+          counterFor(patterns, trackedPatterns, pattern.pattern(), Integer.MAX_VALUE).increment();
+        }
+        break;
+      case DENIED:
+        denied.increment();
+        break;
+    }
+
+    // all types allowed bypasses the rules, so there is no cache involved
+    if (reason != Reason.ALL) {
+      if (cached) {
+        cacheHit.increment();
+      }
+      else {
+        cacheMiss.increment();
+      }
+    }
+
+    StripedCounter counter = counterFor(types, trackedTypes, className, maxTrackedTypes);
+    if (counter != null) {
+      counter.increment();
+    }
+    else if (untrackedTypes.increment() % REPLACE_INTERVAL == 0) {
+      replaceLeastChecked(className);
+    }
+  }
+
+  /**
+   * Returns the counter for the given key, creating it unless {@code max} counters are already tracked.
+   */
+  @Nullable
+  private static StripedCounter counterFor(final ConcurrentMap<String, StripedCounter> counters,
+                                           final AtomicInteger tracked,
+                                           final String key,
+                                           final int max)
+  {
+    StripedCounter counter = counters.get(key);
+    if (counter == null && tracked.get() < max) {
+      if (tracked.incrementAndGet() > max) {
+        tracked.decrementAndGet();
+        return null;
+      }
+      counter = new StripedCounter(TYPE_STRIPES, false);
+      StripedCounter existing = counters.putIfAbsent(key, counter);
+      if (existing != null) {
+        tracked.decrementAndGet();
+        counter = existing;
+      }
+    }
+    return counter;
+  }
+
+  /**
+   * Replaces the least checked tracked name with the given one, which inherits its count.  Only one thread replaces
+   * at a time, others skip.
+   */
+  private void replaceLeastChecked(final String className) {
+    if (!replacing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      Entry<String, StripedCounter> least = null;
+      long leastCount = Long.MAX_VALUE;
+      for (Entry<String, StripedCounter> entry : types.entrySet()) {
+        long count = entry.getValue().sum();
+        if (count < leastCount) {
+          least = entry;
+          leastCount = count;
+        }
+      }
+      if (least != null && types.remove(least.getKey(), least.getValue())) {
+        StripedCounter counter = new StripedCounter(TYPE_STRIPES, false);
+        counter.add(leastCount + 1);
+        if (types.putIfAbsent(className, counter) != null) {
+          trackedTypes.decrementAndGet();
+        }
+      }
+    }
+    finally {
+      replacing.set(false);
+    }
+  }
+
+  public long getAllowedAllCount() {
+    return allowedAll.sum();
+  }
+
+  public long getAllowedTypeCount() {
+    return allowedType.sum();
+  }
+
+  public long getAllowedPackageCount() {
+    return allowedPackage.sum();
+  }
+
+  public long getAllowedPatternCount() {
+    return allowedPattern.sum();
+  }
+
+  public Map<String, Long> getAllowedPatternCounts() {
+    return sorted(patterns, Integer.MAX_VALUE);
+  }
+
+  public long getDeniedCount() {
+    return denied.sum();
+  }
+
+  public long getCacheHitCount() {
+    return cacheHit.sum();
+  }
+
+  public long getCacheMissCount() {
+    return cacheMiss.sum();
+  }
+
+  public Map<String, Long> getTopCheckedTypes() {
+    return sorted(types, topTypes);
+  }
+
+  private static Map<String, Long> sorted(final Map<String, StripedCounter> counters, final int limit) {
+    List<Entry<String, Long>> entries = Lists.newArrayList();
+    for (Entry<String, StripedCounter> entry : counters.entrySet()) {
+      entries.add(Maps.immutableEntry(entry.getKey(), entry.getValue().sum()));
+    }
+    Collections.sort(entries, new Comparator<Entry<String, Long>>()
+    {
+      public int compare(final Entry<String, Long> a, final Entry<String, Long> b) {
+        return b.getValue().compareTo(a.getValue());
+      }
+    });
+
+    Map<String, Long> result = new LinkedHashMap<String, Long>();
+    for (Entry<String, Long> entry : entries) {
+      if (result.size() >= limit) {
+        break;
+      }
+      result.put(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  public void reset() {
+    allowedAll.reset();
+    allowedType.reset();
+    allowedPackage.reset();
+    allowedPattern.reset();
+    denied.reset();
+    cacheHit.reset();
+    cacheMiss.reset();
+    patterns.clear();
+    trackedPatterns.set(0);
+    types.clear();
+    trackedTypes.set(0);
+    untrackedTypes.reset();
+  }
+
+  /**
+   * Register with the platform MBean server as {@code com.thoughtworks.xstream.whitelist:type=TypeWhitelistMetrics,name=<name>}.
+   */
+  public ObjectName register(final String name) throws JMException {
+    checkNotNull(name);
+    ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + getClass().getSimpleName() +
+        ",name=" + ObjectName.quote(name));
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    this.objectName = objectName;
+    log.debug("Registered: {}", objectName);
+    return objectName;
+  }
+
+  public void unregister() throws JMException {
+    ObjectName objectName = this.objectName;
+    if (objectName != null) {
+      this.objectName = null;
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (server.isRegistered(objectName)) {
+        server.unregisterMBean(objectName);
+      }
+      log.debug("Unregistered: {}", objectName);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{" +
+        "allowedAll=" + getAllowedAllCount() +
+        ", allowedType=" + getAllowedTypeCount() +
+        ", allowedPackage=" + getAllowedPackageCount() +
+        ", allowedPattern=" + getAllowedPatternCount() +
+        ", denied=" + getDeniedCount() +
+        ", cacheHit=" + getCacheHitCount() +
+        ", cacheMiss=" + getCacheMissCount() +
+        '}';
+  }
+}
@@ -0,0 +1,35 @@
+package com.thoughtworks.xstream.whitelist;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link TypeWhitelistMetrics}.
+ */
+public interface TypeWhitelistMetricsMBean
+{
+  long getAllowedAllCount();
+
+  long getAllowedTypeCount();
+
+  long getAllowedPackageCount();
+
+  long getAllowedPatternCount();
+
+  /**
+   * Allowed counts per pattern, keyed by the pattern expression.
+   */
+  Map<String, Long> getAllowedPatternCounts();
+
+  long getDeniedCount();
+
+  long getCacheHitCount();
+
+  long getCacheMissCount();
+
+  /**
+   * Most frequently checked class names with their check counts, most frequent first.
+   */
+  Map<String, Long> getTopCheckedTypes();
+
+  void reset();
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.acceptance;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.ConversionException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrdinalReferenceTest extends AbstractReferenceTest {
+
+    // tests inherited from superclass
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        xstream.setMode(XStream.ORDINAL_REFERENCES);
+        // the white-list would deny the nested types of the inherited tests
+        xstream.getTypeWhitelist().allowPackage(AbstractReferenceTest.class.getPackage());
+    }
+
+    public void testXmlContainsReferenceIds() {
+
+        Thing sameThing = new Thing("hello");
+        Thing anotherThing = new Thing("hello");
+
+        List list = new ArrayList();
+        list.add(sameThing);
+        list.add(sameThing);
+        list.add(anotherThing);
+
+        String expected = "" +
+                "<list id=\"1\">\n" +
+                "  <thing id=\"2\">\n" +
+                "    <field>hello</field>\n" +
+                "  </thing>\n" +
+                "  <thing reference=\"2\"/>\n" +
+                "  <thing id=\"3\">\n" +
+                "    <field>hello</field>\n" +
+                "  </thing>\n" +
+                "</list>";
+
+        assertEquals(expected, xstream.toXML(list));
+    }
+
+    public void testCircularReferenceXml() {
+        Person bob = new Person("bob");
+        Person jane = new Person("jane");
+        bob.likes = jane;
+        jane.likes = bob;
+
+        String expected = "" +
+                "<person id=\"1\">\n" +
+                "  <firstname>bob</firstname>\n" +
+                "  <likes id=\"2\">\n" +
+                "    <firstname>jane</firstname>\n" +
+                "    <likes reference=\"1\"/>\n" +
+                "  </likes>\n" +
+                "</person>";
+
+        assertEquals(expected, xstream.toXML(bob));
+    }
+
+    public void testReplacedReference() {
+        String expectedXml = ""
+            + "<element id=\"1\">\n"
+            + "  <data>parent</data>\n"
+            + "  <children id=\"2\">\n"
+            + "    <anonymous-element id=\"3\" resolves-to=\"element\">\n"
+            + "      <data>child</data>\n"
+            + "      <parent reference=\"1\"/>\n"
+            + "      <children id=\"4\"/>\n"
+            + "    </anonymous-element>\n"
+            + "  </children>\n"
+            + "</element>";
+        
+        replacedReference(expectedXml);
+    }
+
+    public void testReadsIdsWrittenInIdMode() {
+        List list = new ArrayList();
+        list.add(new Thing("hello"));
+        list.add(list.get(0));
+        XStream idXStream = createXStream();
+        idXStream.alias("thing", Thing.class);
+        idXStream.setMode(XStream.ID_REFERENCES);
+
+        List out = (List)xstream.fromXML(idXStream.toXML(list));
+        assertEquals(list, out);
+        assertSame(out.get(0), out.get(1));
+    }
+
+    public void testCanReferenceLargeIds() {
+        String xml = ""
+                + "<list id=\"1000000\">\n"
+                + "  <thing id=\"2000000\">\n"
+                + "    <field>hello</field>\n"
+                + "  </thing>\n"
+                + "  <thing reference=\"2000000\"/>\n"
+                + "</list>";
+        List list = (List)xstream.fromXML(xml);
+        assertEquals(2, list.size());
+        assertSame(list.get(0), list.get(1));
+    }
+
+    public void testThrowsForNonNumericId() {
+        try {
+            xstream.fromXML("<list id=\"foo\"/>");
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals("foo", e.get("id"));
+        }
+    }
+}
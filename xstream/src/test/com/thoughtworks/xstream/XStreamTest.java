@@ -39,9 +39,12 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class XStreamTest extends TestCase {
 
@@ -231,6 +234,25 @@ public class XStreamTest extends TestCase {
         assertEquals(xstream.toXML(obj), xstream.toXML(obj));
     }
 
+    public void testUnmarshalsStringThroughReaderOverloads() {
+        final List readers = new ArrayList();
+        XStream xstream = new XStream() {
+            public Object fromXML(Reader reader) {
+                readers.add(reader);
+                return super.fromXML(reader);
+            }
+
+            public Object fromXML(Reader xml, Object root) {
+                readers.add(xml);
+                return super.fromXML(xml, root);
+            }
+        };
+
+        assertEquals("x", xstream.fromXML("<string>x</string>"));
+        assertEquals("y", xstream.fromXML("<string>y</string>", null));
+        assertEquals(2, readers.size());
+    }
+
     public void testAccessToUnderlyingDom4JImplementation()
             throws Exception {
 
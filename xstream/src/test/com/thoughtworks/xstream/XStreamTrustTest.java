@@ -0,0 +1,63 @@
+package com.thoughtworks.xstream;
+
+import org.sonatype.nexus.configuration.model.DefaultConfigurationHelper;
+
+import com.thoughtworks.xstream.io.xml.XppDriver;
+import com.thoughtworks.xstream.mapper.CannotResolveClassException;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for enabling the white-list of {@link XStream} depending on the creator.
+ */
+public class XStreamTrustTest
+{
+  @Test
+  public void untrustedCaller_enabled() {
+    assertWhitelistEnabled(new XStream());
+  }
+
+  @Test
+  public void trustedCaller_disabled() {
+    assertWhitelistDisabled(DefaultConfigurationHelper.createXstream());
+  }
+
+  @Test
+  public void untrustedCreator_enabled() {
+    assertWhitelistEnabled(new XStream(new XppDriver(), getClass()));
+  }
+
+  @Test
+  public void trustedCreator_disabled() {
+    assertWhitelistDisabled(new XStream(new XppDriver(), DefaultConfigurationHelper.class));
+  }
+
+  @Test
+  public void trustedCreator_forced() {
+    XStream.whitelistForceProperty.set(true);
+    try {
+      assertWhitelistEnabled(new XStream(new XppDriver(), DefaultConfigurationHelper.class));
+    }
+    finally {
+      XStream.whitelistForceProperty.remove();
+    }
+  }
+
+  private void assertWhitelistEnabled(final XStream xstream) {
+    try {
+      xstream.fromXML("<java-class>java.lang.String</java-class>");
+      fail();
+    }
+    catch (CannotResolveClassException e) {
+      assertThat(e.getMessage(), is("java-class"));
+    }
+  }
+
+  private void assertWhitelistDisabled(final XStream xstream) {
+    assertThat(xstream.fromXML("<java-class>java.lang.String</java-class>"), equalTo((Object) String.class));
+  }
+}
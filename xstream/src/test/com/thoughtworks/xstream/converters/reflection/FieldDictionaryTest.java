@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -70,6 +70,52 @@ public class FieldDictionaryTest extends TestCase {
         assertFalse("No more fields should be present", fields.hasNext());
     }
 
+    static class HidingClass extends SomeClass {
+        private String a;
+    }
+
+    public void testFindsHiddenFieldByDeclaringClass() {
+        Field field = fieldDictionary.field(HidingClass.class, "a", null);
+        assertEquals(HidingClass.class, field.getDeclaringClass());
+        field = fieldDictionary.field(HidingClass.class, "a", SomeClass.class);
+        assertEquals(SomeClass.class, field.getDeclaringClass());
+        assertNull(fieldDictionary.fieldOrNull(HidingClass.class, "e", HidingClass.class));
+        assertNull(fieldDictionary.fieldOrNull(HidingClass.class, "a", String.class));
+    }
+
+    public void testBuildsFieldsOfSameClassConcurrently() throws InterruptedException {
+        final Field[] found = new Field[8];
+        Thread[] threads = new Thread[found.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int idx = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    found[idx] = fieldDictionary.fieldOrNull(SpecialClass.class, "brilliant", null);
+                }
+            };
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        for (int i = 0; i < found.length; i++) {
+            assertSame(found[0], found[i]);
+        }
+        assertEquals("brilliant", found[0].getName());
+    }
+
+    public void testDiscardsAttachmentWithFlushedFields() {
+        final Object attachment = new Object();
+        assertSame(attachment, fieldDictionary.attach(SpecialClass.class, attachment));
+        assertSame(attachment, fieldDictionary.attach(SpecialClass.class, new Object()));
+        assertSame(attachment, fieldDictionary.getAttachment(SpecialClass.class));
+        assertNull(fieldDictionary.getAttachment(Object.class));
+        fieldDictionary.flushCache();
+        assertNull(fieldDictionary.getAttachment(SpecialClass.class));
+    }
+
     private static String getNonStaticFieldName(Iterator fields) {
         final Field field = (Field)fields.next();
         // JRockit declares static fields first, XStream will ignore them anyway
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,7 +11,13 @@
  */
 package com.thoughtworks.xstream.converters.reflection;
 
+import java.io.File;
 import java.io.Serializable;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.net.URL;
+import java.net.URLClassLoader;
 
 public class PureJavaReflectionProviderTest extends AbstractReflectionProviderTest {
 
@@ -118,6 +124,35 @@ public class PureJavaReflectionProviderTest extends AbstractReflectionProviderTe
         assertCanCreate(NonStaticSerializableWithoutDefaultConstructor.class);
     }
 
+    public void testCreatesNewInstanceForEachCall() {
+        Object first = reflectionProvider.newInstance(SerializableWithoutDefaultConstructor.class);
+        Object second = reflectionProvider.newInstance(SerializableWithoutDefaultConstructor.class);
+        assertNotSame(first, second);
+        first = reflectionProvider.newInstance(WithPrivateDefaultConstructor.class);
+        second = reflectionProvider.newInstance(WithPrivateDefaultConstructor.class);
+        assertNotSame(first, second);
+    }
 
+    public void testDoesNotKeepInstantiatedClassAlive() throws Exception {
+        File proxyToys = new File("target/lib/proxytoys-0.2.1.jar");
+        ClassLoader classLoader = new URLClassLoader(
+            new URL[]{proxyToys.toURI().toURL()}, getClass().getClassLoader());
+        Class type = Class.forName("com.thoughtworks.proxy.kit.NoOperationResetter", true, classLoader);
+        ReferenceQueue refQueue = new ReferenceQueue();
+        Reference ref = new PhantomReference(type, refQueue);
+
+        ReflectionProvider provider = new PureJavaReflectionProvider();
+        assertSame(type, provider.newInstance(type).getClass());
+        classLoader = null;
+        type = null;
+
+        int i = 0;
+        while (refQueue.poll() == null) {
+            ref.get(); // always null
+            assertTrue("Class still alive even after "+i+" forced garbage collections", i++ < 5);
+            Thread.sleep(10);
+            System.gc();
+        }
+        assertNotNull(provider.newInstance(WithPrivateDefaultConstructor.class));
+    }
 }
-
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2010, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2010, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -157,4 +157,57 @@ public class ReflectionConverterTest extends TestCase {
         }
     }
     
+
+    public void testConfigurationAfterMarshallingIsApplied() {
+        TypesOfFields fields = new TypesOfFields();
+        XStream xstream = new XStream(new XppDriver());
+        xstream.alias("types", TypesOfFields.class);
+        assertEquals("" +
+                "<types>\n" +
+                "  <normal>normal</normal>\n" +
+                "</types>", xstream.toXML(fields));
+
+        xstream.aliasField("n", TypesOfFields.class, "normal");
+        assertEquals("" +
+                "<types>\n" +
+                "  <n>normal</n>\n" +
+                "</types>", xstream.toXML(fields));
+
+        xstream.useAttributeFor(TypesOfFields.class, "normal");
+        assertEquals("<types n=\"normal\"/>", xstream.toXML(fields));
+
+        xstream.omitField(TypesOfFields.class, "normal");
+        assertEquals("<types/>", xstream.toXML(fields));
+    }
+
+    public void testConfigurationAfterUnmarshallingIsApplied() {
+        XStream xstream = new XStream(new XppDriver());
+        xstream.alias("types", TypesOfFields.class);
+        TypesOfFields fields = (TypesOfFields)xstream.fromXML("" +
+                "<types>\n" +
+                "  <normal>first</normal>\n" +
+                "</types>");
+        assertEquals("first", fields.normal);
+
+        xstream.aliasField("n", TypesOfFields.class, "normal");
+        fields = (TypesOfFields)xstream.fromXML("" +
+                "<types>\n" +
+                "  <n>second</n>\n" +
+                "</types>");
+        assertEquals("second", fields.normal);
+
+        xstream.useAttributeFor(TypesOfFields.class, "normal");
+        fields = (TypesOfFields)xstream.fromXML("<types n=\"third\"/>");
+        assertEquals("third", fields.normal);
+
+        try {
+            xstream.fromXML("" +
+                    "<types n=\"third\">\n" +
+                    "  <n>fourth</n>\n" +
+                    "</types>");
+            fail("Thrown " + AbstractReflectionConverter.DuplicateFieldException.class.getName() + " expected");
+        } catch (final AbstractReflectionConverter.DuplicateFieldException e) {
+            assertEquals("normal", e.get("field"));
+        }
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.converters.reflection;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+
+import junit.framework.TestCase;
+
+public class SerializationMethodInvokerTest extends TestCase {
+
+    public static class Resolving implements Serializable {
+        private Object readResolve() {
+            return "resolved";
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+        }
+    }
+
+    public static class DerivedResolving extends Resolving {
+    }
+
+    public void testCallsInheritedReadResolve() {
+        SerializationMethodInvoker invoker = new SerializationMethodInvoker();
+        assertEquals("resolved", invoker.callReadResolve(new Resolving()));
+        assertEquals("resolved", invoker.callReadResolve(new DerivedResolving()));
+        Object plain = new Object();
+        assertSame(plain, invoker.callReadResolve(plain));
+        assertSame(plain, invoker.callWriteReplace(plain));
+    }
+
+    public void testDistinguishesDeclaredFromInheritedReadObject() {
+        SerializationMethodInvoker invoker = new SerializationMethodInvoker();
+        assertTrue(invoker.supportsReadObject(Resolving.class, false));
+        assertTrue(invoker.supportsReadObject(DerivedResolving.class, true));
+        assertFalse(invoker.supportsReadObject(DerivedResolving.class, false));
+        assertFalse(invoker.supportsWriteObject(DerivedResolving.class, true));
+        invoker.flushCache();
+        assertFalse(invoker.supportsReadObject(DerivedResolving.class, false));
+        assertTrue(invoker.supportsReadObject(Resolving.class, false));
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007, 2013 XStream Committers.
+ * Copyright (C) 2006, 2007, 2013, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,9 @@
  */
 package com.thoughtworks.xstream.converters.reflection;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class Sun14ReflectionProviderTest extends AbstractReflectionProviderTest {
 
     // inherits tests from superclass
@@ -77,6 +80,30 @@ public class Sun14ReflectionProviderTest extends AbstractReflectionProviderTest
 
     }
 
+    public void testVisitsPrimitiveFieldValues() {
+        WithFinalFields thingy = new WithFinalFields();
+        reflectionProvider.writeField(thingy, "finalInt", new Integer(1), WithFinalFields.class);
+        reflectionProvider.writeField(thingy, "finalChar", new Character('2'), WithFinalFields.class);
+        reflectionProvider.writeField(thingy, "finalDouble", new Double(0.3), WithFinalFields.class);
+        reflectionProvider.writeField(thingy, "finalBoolean", Boolean.TRUE, WithFinalFields.class);
+
+        final Map values = new HashMap();
+        reflectionProvider.visitSerializableFields(thingy, new ReflectionProvider.Visitor() {
+            public void visit(String name, Class type, Class definedIn, Object value) {
+                assertEquals(WithFinalFields.class, definedIn);
+                values.put(name, value);
+            }
+        });
+        assertEquals(9, values.size());
+        assertNull(values.get("finalField"));
+        assertEquals(new Integer(1), values.get("finalInt"));
+        assertEquals(new Long(0), values.get("finalLong"));
+        assertEquals(new Character('2'), values.get("finalChar"));
+        assertEquals(new Float(0.0f), values.get("finalFloat"));
+        assertEquals(new Double(0.3), values.get("finalDouble"));
+        assertEquals(Boolean.TRUE, values.get("finalBoolean"));
+    }
+
     public void testCanInstantiateWithoutInitializer() {
         assertCanCreate(Unistantiatable.class);
     }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -20,6 +20,7 @@ import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.SingleValueConverterWrapper;
 import com.thoughtworks.xstream.converters.basic.StringConverter;
 import com.thoughtworks.xstream.converters.collections.BitSetConverter;
+import com.thoughtworks.xstream.converters.extended.ToStringConverter;
 
 /**
  * @author Guilherme Silveira
@@ -41,4 +42,25 @@ public class DefaultConverterLookupTest extends TestCase {
 		assertEquals(lookup.lookupConverterForType(String.class), newConverter);
 	}
 
+	public void testExactTypesDoNotOverrideHigherPriority() throws NoSuchMethodException {
+		final DefaultConverterLookup lookup = new DefaultConverterLookup();
+		Converter stringConverter = new SingleValueConverterWrapper(new StringConverter());
+		lookup.registerConverter(stringConverter, XStream.PRIORITY_NORMAL);
+		assertSame(stringConverter, lookup.lookupConverterForType(String.class));
+		Converter highConverter = new SingleValueConverterWrapper(new ToStringConverter(String.class));
+		lookup.registerConverter(highConverter, XStream.PRIORITY_VERY_HIGH);
+		assertSame(highConverter, lookup.lookupConverterForType(String.class));
+	}
+
+	public void testIgnoresExactTypesOfSubclassOverridingCanConvert() {
+		final DefaultConverterLookup lookup = new DefaultConverterLookup();
+		Converter stringConverter = new SingleValueConverterWrapper(new StringConverter() {
+			public boolean canConvert(Class type) {
+				return type == String.class || type == StringBuffer.class;
+			}
+		});
+		lookup.registerConverter(stringConverter, XStream.PRIORITY_NORMAL);
+		assertSame(stringConverter, lookup.lookupConverterForType(StringBuffer.class));
+	}
+
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.io.File;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.reflect.Array;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import junit.framework.TestCase;
+
+public class ClassValueCacheTest extends TestCase {
+
+    public void testCachesFirstValue() {
+        ClassValueCache cache = new ClassValueCache();
+        assertNull(cache.get(String.class));
+        assertEquals("first", cache.putIfAbsent(String.class, "first"));
+        assertEquals("first", cache.putIfAbsent(String.class, "second"));
+        assertEquals("first", cache.get(String.class));
+        assertNull(cache.get(Object.class));
+        assertEquals(1, cache.size());
+    }
+
+    public void testDoesNotCacheNullType() {
+        ClassValueCache cache = new ClassValueCache();
+        assertEquals("value", cache.putIfAbsent(null, "value"));
+        assertNull(cache.get(null));
+        assertEquals(0, cache.size());
+    }
+
+    public void testGrowsWithoutLosingValues() {
+        ClassValueCache cache = new ClassValueCache();
+        Class[] types = new Class[200];
+        types[0] = String.class;
+        for (int i = 1; i < types.length; i++) {
+            types[i] = Array.newInstance(types[i - 1], 0).getClass();
+            cache.putIfAbsent(types[i], new Integer(i));
+        }
+        assertEquals(types.length - 1, cache.size());
+        assertNull(cache.get(types[0]));
+        for (int i = 1; i < types.length; i++) {
+            assertEquals(new Integer(i), cache.get(types[i]));
+        }
+    }
+
+    public void testEntriesAreRemovedIfClassIsUnloaded() throws Exception {
+        File proxyToys = new File("target/lib/proxytoys-0.2.1.jar");
+        ClassLoader classLoader = new URLClassLoader(
+            new URL[]{proxyToys.toURI().toURL()}, getClass().getClassLoader());
+        Class type = Class.forName("com.thoughtworks.proxy.kit.SimpleReference", true, classLoader);
+        ReferenceQueue refQueue = new ReferenceQueue();
+        Reference ref = new PhantomReference(type, refQueue);
+
+        ClassValueCache cache = new ClassValueCache();
+        cache.putIfAbsent(type, "value");
+        assertEquals(1, cache.size());
+        classLoader = null;
+        type = null;
+
+        int i = 0;
+        while (refQueue.poll() == null) {
+            ref.get(); // always null
+            assertTrue("Class still alive even after "+i+" forced garbage collections", i++ < 5);
+            Thread.sleep(10);
+            System.gc();
+        }
+        cache.putIfAbsent(String.class, "value");
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+
+public class FastDateFormatTest extends TestCase {
+
+    // 1583-01-01T00:00:00Z to 9999-12-31T23:59:59.999Z
+    private static final long MIN = -12212553600000L;
+    private static final long MAX = 253402300799999L;
+
+    private final Random random = new Random(42);
+
+    private long randomTime() {
+        return MIN + (long)(random.nextDouble() * (MAX - MIN));
+    }
+
+    public void testFormatsAndParsesAsSimpleDateFormatInUTC() throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.S z", Locale.ENGLISH);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        format.setLenient(false);
+        long[] times = {MIN, MAX, 0, -1, 1, 999, 1000, 951782400000L, 1330473600000L};
+        for (int i = 0; i < 10000; ++i) {
+            long time = i < times.length ? times[i] : randomTime();
+            String expected = format.format(new java.util.Date(time));
+            assertEquals(expected, FastDateFormat.formatUTC(time));
+            assertEquals(expected, time, FastDateFormat.parseUTC(expected));
+        }
+    }
+
+    public void testFormatsAndParsesTimestampsInUTC() throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ENGLISH);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        assertEquals("2004-02-22 15:16:04.0", FastDateFormat.formatUTCTimestamp(
+            format.parse("2004-02-22 15:16:04").getTime(), 0));
+        assertEquals("2004-02-22 15:16:04.1", FastDateFormat.formatUTCTimestamp(
+            format.parse("2004-02-22 15:16:04").getTime() + 100, 100000000));
+        assertEquals("2004-02-22 15:16:04.000000009", FastDateFormat.formatUTCTimestamp(
+            format.parse("2004-02-22 15:16:04").getTime(), 9));
+        assertEquals("2004-02-22 15:16:04.12345", FastDateFormat.formatUTCTimestamp(
+            format.parse("2004-02-22 15:16:04").getTime() + 123, 123450000));
+        for (int i = 0; i < 1000; ++i) {
+            long time = randomTime() / 1000 * 1000;
+            String expected = format.format(new java.util.Date(time));
+            assertEquals(expected, time, FastDateFormat.parseUTCSeconds(expected, 19));
+        }
+    }
+
+    public void testFormatsAndParsesAsJodaTime() {
+        DateTimeFormatter formatter = ISODateTimeFormat.dateTime();
+        String[] zones = {"UTC", "Europe/Berlin", "America/Panama", "Asia/Kolkata", "Pacific/Chatham"};
+        for (int i = 0; i < 10000; ++i) {
+            long time = randomTime();
+            DateTimeZone zone = DateTimeZone.forID(zones[i % zones.length]);
+            int offset = zone.getOffset(time);
+            String expected = new DateTime(time, zone).toString(formatter);
+            String actual = FastDateFormat.formatISO8601(time, offset);
+            if (offset % 60000 == 0) {
+                assertEquals(expected, actual);
+            } else {
+                assertNull(actual);
+            }
+            if (actual != null) {
+                assertEquals(expected, formatter.parseMillis(expected), FastDateFormat
+                    .parseISO8601(expected));
+            }
+        }
+        assertEquals(ISODateTimeFormat.dateTimeNoMillis().parseMillis("1969-12-31T23:59:59-01:30"),
+            FastDateFormat.parseISO8601("1969-12-31T23:59:59-01:30"));
+    }
+
+    public void testDoesNotSupportDatesOutsideOfModernGregorianCalendar() {
+        assertNull(FastDateFormat.formatUTC(MIN - 1));
+        assertNull(FastDateFormat.formatUTC(MAX + 1));
+        assertNull(FastDateFormat.formatUTCTimestamp(MIN - 1, 0));
+        assertNull(FastDateFormat.formatISO8601(MIN, -1));
+        assertNull(FastDateFormat.formatISO8601(MAX, 1));
+        assertEquals(FastDateFormat.INVALID, FastDateFormat.parseUTC("1582-12-31 23:59:59.999 UTC"));
+        assertEquals(FastDateFormat.INVALID, FastDateFormat.parseUTCSeconds("1582-12-31 23:59:59", 19));
+    }
+
+    public void testRejectsTextOfOtherShape() {
+        String[] texts = {
+            "", "2004-02-22 15:16:04 UTC", "2004-02-22 15:16:04.1234 UTC",
+            "2004-02-22 15:16:04.0 PST", "2004-02-22 15:16:04.0 UTC ", "2004-2-22 15:16:04.0 UTC",
+            "2004-02-30 15:16:04.0 UTC", "2003-02-29 15:16:04.0 UTC", "2004-13-22 15:16:04.0 UTC",
+            "2004-02-22 24:00:00.0 UTC", "2004-02-22 15:60:04.0 UTC", "2004-02-22 15:16:60.0 UTC",
+            "2004-02-22T15:16:04.0 UTC", "2004-02-22 15:16:04.+1 UTC", "+004-02-22 15:16:04.0 UTC"};
+        for (int i = 0; i < texts.length; i++) {
+            assertEquals(texts[i], FastDateFormat.INVALID, FastDateFormat.parseUTC(texts[i]));
+        }
+        texts = new String[]{
+            "", "2004-02-22T15:16:04", "2004-02-22T15:16:04.1Z", "2004-02-22T15:16:04.1234Z",
+            "2004-02-22 15:16:04.000Z", "2004-02-22T15:16:04.000z", "2004-02-22T15:16:04.000+01",
+            "2004-02-22T15:16:04.000+0100", "2004-02-22T15:16:04.000*01:00",
+            "2004-02-22T15:16:04.000+24:00", "2004-02-22T15:16:04.000+01:60",
+            "2004-02-22T15:16:04.000Z+01:00", "2004-02-29T15:16:04.000+01:00 "};
+        for (int i = 0; i < texts.length; i++) {
+            assertEquals(texts[i], FastDateFormat.INVALID, FastDateFormat.parseISO8601(texts[i]));
+        }
+        assertEquals(FastDateFormat.INVALID, FastDateFormat.parseUTCSeconds("2004-02-22 15:16:04", 18));
+        assertEquals(FastDateFormat.INVALID, FastDateFormat.parseUTCSeconds("2004-02-22 15:16:4", 18));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+import junit.framework.TestCase;
+
+public class IdentityObjectIdDictionaryTest extends TestCase {
+
+    public void testMapsIdsToObjectReferences() {
+        final IdentityObjectIdDictionary dict = new IdentityObjectIdDictionary();
+        final Object a = new Object();
+        final Object b = new Object();
+        dict.associateId(a, "id a");
+        dict.associateId(b, "id b");
+        dict.associateId(b, "id B");
+        assertEquals("id a", dict.lookupId(a));
+        assertEquals("id B", dict.lookupId(b));
+        assertNull(dict.lookupId(new Object()));
+        assertEquals(2, dict.size());
+    }
+
+    public void testTreatsObjectsThatAreEqualButNotSameInstanceAsDifferentReference() {
+        final IdentityObjectIdDictionary dict = new IdentityObjectIdDictionary();
+        final Integer a = new Integer(3);
+        final Integer b = new Integer(3);
+        dict.associateId(a, "id a");
+        assertFalse(dict.containsId(b));
+        dict.associateId(b, "id b");
+        assertEquals("id a", dict.lookupId(a));
+        assertEquals("id b", dict.lookupId(b));
+    }
+
+    public void testKeepsEntriesWhenGrowingAndRemoving() {
+        final IdentityObjectIdDictionary dict = new IdentityObjectIdDictionary();
+        final Object[] objects = new Object[1000];
+        for (int i = 0; i < objects.length; ++i) {
+            objects[i] = new Object();
+            dict.associateId(objects[i], new Integer(i));
+        }
+        assertEquals(objects.length, dict.size());
+        for (int i = 0; i < objects.length; i += 2) {
+            dict.removeId(objects[i]);
+        }
+        assertEquals(objects.length / 2, dict.size());
+        for (int i = 0; i < objects.length; ++i) {
+            if (i % 2 == 0) {
+                assertFalse(dict.containsId(objects[i]));
+            } else {
+                assertEquals(new Integer(i), dict.lookupId(objects[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class PoolTest extends TestCase {
+
+    private int created;
+
+    private Pool.Factory factory = new Pool.Factory() {
+        public Object newInstance() {
+            return new Integer(++created);
+        }
+    };
+
+    public void testReusesInstancePutBack() {
+        Pool pool = new Pool(1, 2, factory);
+        Object first = pool.fetchFromPool();
+        pool.putInPool(first);
+        assertSame(first, pool.fetchFromPool());
+        assertEquals(new Integer(2), pool.fetchFromPool());
+        assertEquals(2, created);
+    }
+
+    public void testAllocatesTemporaryInstanceIfExhausted() {
+        Pool pool = new Pool(0, 1, factory, Pool.ALLOCATE);
+        Object first = pool.fetchFromPool();
+        Object second = pool.fetchFromPool();
+        assertEquals(new Integer(1), first);
+        assertEquals(new Integer(2), second);
+        pool.putInPool(second);
+        pool.putInPool(first);
+        assertSame(second, pool.fetchFromPool());
+        assertEquals(new Integer(3), pool.fetchFromPool());
+    }
+
+    public void testFailsIfExhausted() {
+        Pool pool = new Pool(0, 1, factory, Pool.FAIL);
+        Object first = pool.fetchFromPool();
+        try {
+            pool.fetchFromPool();
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (final IllegalStateException e) {
+            // OK
+        }
+        pool.putInPool(first);
+        assertSame(first, pool.fetchFromPool());
+    }
+
+    public void testDropsInstancePutBackTwice() {
+        Pool pool = new Pool(1, 1, factory, Pool.FAIL);
+        Object first = pool.fetchFromPool();
+        pool.putInPool(first);
+        pool.putInPool(first);
+        assertSame(first, pool.fetchFromPool());
+        try {
+            pool.fetchFromPool();
+            fail("Thrown " + IllegalStateException.class.getName() + " expected");
+        } catch (final IllegalStateException e) {
+            // OK
+        }
+        assertEquals(1, created);
+    }
+
+    public void testDropsForeignInstanceIfFull() {
+        Pool pool = new Pool(1, 1, factory);
+        Object first = pool.fetchFromPool();
+        pool.putInPool(first);
+        pool.putInPool("foreign");
+        assertSame(first, pool.fetchFromPool());
+    }
+
+    public void testAcceptsForeignInstanceIntoFreeSlot() {
+        Pool pool = new Pool(1, 1, factory);
+        Object first = pool.fetchFromPool();
+        pool.putInPool("foreign");
+        pool.putInPool(first);
+        assertEquals("foreign", pool.fetchFromPool());
+    }
+
+    public void testCountsHitsMissesAndWaits() throws InterruptedException {
+        final Pool pool = new Pool(1, 1, factory);
+        final Object first = pool.fetchFromPool();
+        pool.putInPool(first);
+        assertSame(first, pool.fetchFromPool());
+        assertEquals(2, pool.getHits());
+        assertEquals(0, pool.getMisses());
+
+        final Object[] fetched = new Object[1];
+        Thread thread = new Thread() {
+            public void run() {
+                fetched[0] = pool.fetchFromPool();
+            }
+        };
+        thread.start();
+        while (pool.getWaits() == 0) {
+            Thread.sleep(1);
+        }
+        pool.putInPool(first);
+        thread.join();
+        assertSame(first, fetched[0]);
+        assertEquals(1, pool.getMisses());
+        assertEquals(1, created);
+    }
+
+    public void testHandsOutInstanceToOneThreadAtATime() throws InterruptedException {
+        final Pool pool = new Pool(2, 4, new Pool.Factory() {
+            public Object newInstance() {
+                return new Object();
+            }
+        });
+        final Set inUse = Collections.synchronizedSet(new HashSet());
+        final Set all = Collections.synchronizedSet(new HashSet());
+        final List errors = Collections.synchronizedList(new ArrayList());
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 1000; ++j) {
+                        Object instance = pool.fetchFromPool();
+                        all.add(instance);
+                        if (!inUse.add(instance)) {
+                            errors.add(instance);
+                        }
+                        inUse.remove(instance);
+                        pool.putInPool(instance);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i].join();
+        }
+        assertEquals(0, errors.size());
+        assertTrue(all.size() <= 4);
+        assertEquals(8000, pool.getHits() + pool.getMisses());
+    }
+
+    public void testRejectsInvalidOverflowMode() {
+        try {
+            new Pool(0, 1, factory, 42);
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // OK
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2009 XStream Committers.
+ * Copyright (C) 2009, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -29,5 +29,17 @@ public class QuickWriterTest extends TestCase {
         assertEquals(stringWriter.toString(), "Joe ");
         writer.write("Walnes".toCharArray());
         assertEquals(stringWriter.toString(), "Joe Walnes");
+        writer.write("<Joerg Schaible>", 1, 5);
+        assertEquals(stringWriter.toString(), "Joe WalnesJoerg");
+    }
+
+    public void testWritesPartOfString() {
+        StringWriter stringWriter = new StringWriter();
+        QuickWriter writer = new QuickWriter(stringWriter, 8);
+        writer.write("<Joe>", 1, 3);
+        writer.write(' ');
+        writer.write("<Walnes and Schaible>", 1, 19);
+        writer.flush();
+        assertEquals(stringWriter.toString(), "Joe Walnes and Schaible");
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+public class Utf8WriterTest extends TestCase {
+
+    private void assertEncodedAsOutputStreamWriter(char[][] chunks, int bufferSize) throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(expected, "UTF-8");
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        Writer utf8Writer = new Utf8Writer(actual, bufferSize);
+        for (int i = 0; i < chunks.length; i++) {
+            writer.write(chunks[i]);
+            utf8Writer.write(chunks[i]);
+        }
+        writer.close();
+        utf8Writer.close();
+        assertTrue(Arrays.equals(expected.toByteArray(), actual.toByteArray()));
+    }
+
+    public void testEncodesAsciiAndMultiByteCharacters() throws IOException {
+        assertEncodedAsOutputStreamWriter(new char[][]{
+            "<tag attr=\"value\">J\u00f6rg \u20ac \ud834\udd1e</tag>".toCharArray()}, 8192);
+    }
+
+    public void testEncodesAcrossBufferBoundaries() throws IOException {
+        StringBuffer buffer = new StringBuffer();
+        for (int i = 0; i < 500; ++i) {
+            buffer.append("a\u00e4\u20ac\ud834\udd1e");
+        }
+        assertEncodedAsOutputStreamWriter(new char[][]{buffer.toString().toCharArray()}, 16);
+    }
+
+    public void testEncodesSurrogatePairSplitBetweenWrites() throws IOException {
+        assertEncodedAsOutputStreamWriter(new char[][]{
+            "x\ud834".toCharArray(), "\udd1ey".toCharArray()}, 8192);
+    }
+
+    public void testReplacesMalformedSurrogates() throws IOException {
+        assertEncodedAsOutputStreamWriter(new char[][]{
+            "a\udd1eb\ud834c\ud834".toCharArray(), "\ud834".toCharArray()}, 8192);
+    }
+
+    public void testEncodesSingleCharactersAndStrings() throws IOException {
+        String text = "a\u00e4\u20ac\ud834\udd1e\udd1eb\ud834";
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(expected, "UTF-8");
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        Writer utf8Writer = new Utf8Writer(actual, 16);
+        for (int i = 0; i < 100; ++i) {
+            for (int j = 0; j < text.length(); ++j) {
+                writer.write(text.charAt(j));
+                utf8Writer.write(text.charAt(j));
+            }
+            writer.write(text, 1, text.length() - 1);
+            utf8Writer.write(text, 1, text.length() - 1);
+        }
+        writer.close();
+        utf8Writer.close();
+        assertTrue(Arrays.equals(expected.toByteArray(), actual.toByteArray()));
+    }
+}
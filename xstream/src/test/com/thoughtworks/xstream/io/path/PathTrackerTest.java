@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -150,4 +150,19 @@ public class PathTrackerTest extends TestCase {
         // ...
     }
 
+    public void testCountsManyDistinctSiblings() {
+        pathTracker.pushElement("root");
+        Path root = pathTracker.getPath();
+        for (int i = 0; i < 100; ++i) {
+            pathTracker.pushElement("child" + i);
+            pathTracker.popElement();
+        }
+        assertSame(root, pathTracker.getPath());
+        for (int i = 0; i < 100; ++i) {
+            pathTracker.pushElement("child" + i);
+            assertEquals(new Path("/root/child" + i + "[2]"), pathTracker.getPath());
+            pathTracker.popElement();
+        }
+    }
+
 }
@@ -105,6 +105,22 @@ public class PrettyPrintWriterTest extends AbstractXMLWriterTest {
         assertXmlProducedIs("<evil attr=\"hello _&_ stuff\">bye AND stuff</evil>");
     }
 
+    public void testEscapesLongTextBetweenPlainRuns() {
+        StringBuffer text = new StringBuffer();
+        StringBuffer escaped = new StringBuffer();
+        for (int i = 0; i < 200; i++ ) {
+            text.append("J\u00f6rg & <Joe>\tsay \"hi\"\r\n");
+            escaped.append("J\u00f6rg &amp; &lt;Joe&gt;\tsay &quot;hi&quot;&#xd;\n");
+        }
+
+        writer.startNode("evil");
+        writer.addAttribute("attr", "'a'\tb\nc");
+        writer.setValue(text.toString());
+        writer.endNode();
+
+        assertXmlProducedIs("<evil attr=\"&apos;a&apos;&#x9;b&#xa;c\">" + escaped + "</evil>");
+    }
+
     public void testSupportsUserDefinedEOL() {
         writer = new PrettyPrintWriter(buffer, "\t", "\r");
 
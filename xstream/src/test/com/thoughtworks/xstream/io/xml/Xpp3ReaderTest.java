@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2011 XStream Committers.
+ * Copyright (C) 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,6 +13,8 @@ package com.thoughtworks.xstream.io.xml;
 import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 
+import org.xmlpull.v1.XmlPullParser;
+
 import java.io.StringReader;
 
 public class Xpp3ReaderTest extends AbstractXMLReaderTest {
@@ -24,5 +26,34 @@ public class Xpp3ReaderTest extends AbstractXMLReaderTest {
         return driver.createReader(new StringReader(xml));
     }
 
+    public void testReusesParserOfClosedReader() throws Exception {
+        final int[] created = new int[1];
+        Xpp3Driver driver = new Xpp3Driver() {
+            protected XmlPullParser createParser() {
+                ++created[0];
+                return super.createParser();
+            }
+        };
+        driver.setParserPoolSize(1);
+
+        HierarchicalStreamReader reader = driver.createReader(new StringReader("<a>one</a>"));
+        assertEquals("one", reader.getValue());
+        reader.close();
+        reader.close();
+        reader = driver.createReader(new StringReader("<b>two</b>"));
+        assertEquals("b", reader.getNodeName());
+        assertEquals("two", reader.getValue());
+        assertEquals(1, created[0]);
+
+        HierarchicalStreamReader second = driver.createReader(new StringReader("<c/>"));
+        assertEquals("c", second.getNodeName());
+        assertEquals(2, created[0]);
+        second.close();
+        reader.close();
+        driver.createReader(new StringReader("<d/>"));
+        driver.createReader(new StringReader("<e/>"));
+        assertEquals(3, created[0]);
+    }
+
     // inherits tests from superclass
 }
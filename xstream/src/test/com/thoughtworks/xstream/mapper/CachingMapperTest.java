@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ */
+package com.thoughtworks.xstream.mapper;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.annotations.XStreamAlias;
+import com.thoughtworks.xstream.core.ClassLoaderReference;
+
+import junit.framework.TestCase;
+
+public class CachingMapperTest extends TestCase {
+
+    private int lookups;
+    private CachingMapper mapper;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        lookups = 0;
+        mapper = new CachingMapper(new DefaultMapper(new ClassLoaderReference(getClass().getClassLoader())) {
+            public Class realClass(String elementName) {
+                synchronized (CachingMapperTest.this) {
+                    lookups++;
+                }
+                return super.realClass(elementName);
+            }
+        });
+    }
+
+    public void testCachesResolvedClasses() {
+        assertSame(String.class, mapper.realClass("java.lang.String"));
+        assertSame(String.class, mapper.realClass("java.lang.String"));
+        assertEquals(1, lookups);
+    }
+
+    public void testCachesUnresolvableNames() {
+        CannotResolveClassException first = null;
+        try {
+            mapper.realClass("not.a.Class");
+            fail("Thrown " + CannotResolveClassException.class.getName() + " expected");
+        } catch (final CannotResolveClassException e) {
+            first = e;
+        }
+        try {
+            mapper.realClass("not.a.Class");
+            fail("Thrown " + CannotResolveClassException.class.getName() + " expected");
+        } catch (final CannotResolveClassException e) {
+            assertSame(first, e);
+        }
+        assertEquals(1, lookups);
+    }
+
+    public void testFlushCacheResolvesAgain() {
+        mapper.realClass("java.lang.String");
+        mapper.flushCache();
+        mapper.realClass("java.lang.String");
+        assertEquals(2, lookups);
+    }
+
+    public void testConcurrentLookups() throws InterruptedException {
+        final String[] names = {"java.lang.String", "java.lang.Integer", "java.util.ArrayList", "java.util.HashMap"};
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < 1000; j++) {
+                            String name = names[j % names.length];
+                            assertEquals(name, mapper.realClass(name).getName());
+                        }
+                    } catch (Throwable e) {
+                        failure[0] = e;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        assertNull(failure[0]);
+        assertTrue(lookups <= names.length * threads.length);
+    }
+
+    public void testLimitsCachedNamesReadFromInput() {
+        final int[] memberLookups = new int[1];
+        CachingMapper mapper = new CachingMapper(new DefaultMapper(new ClassLoaderReference(getClass().getClassLoader())) {
+            public String realMember(Class type, String serialized) {
+                memberLookups[0]++;
+                return super.realMember(type, serialized);
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("field" + i, mapper.realMember(Owner.class, "field" + i));
+        }
+        assertEquals(1000, memberLookups[0]);
+        assertEquals("field0", mapper.realMember(Owner.class, "field0"));
+        assertEquals("field999", mapper.realMember(Owner.class, "field999"));
+        assertEquals(1001, memberLookups[0]);
+    }
+
+    public void testConfigurationFlushesCachedLookups() {
+        XStream xstream = new XStream();
+        Mapper mapper = xstream.getMapper();
+        assertEquals(Owner.class.getName(), mapper.serializedClass(Owner.class));
+        assertEquals("item", mapper.serializedMember(Owner.class, "item"));
+        assertTrue(mapper.shouldSerializeMember(Owner.class, "item"));
+
+        xstream.alias("owner", Owner.class);
+        xstream.aliasField("thing", Owner.class, "item");
+
+        assertEquals("owner", mapper.serializedClass(Owner.class));
+        assertEquals("thing", mapper.serializedMember(Owner.class, "item"));
+        assertEquals("item", mapper.realMember(Owner.class, "thing"));
+
+        xstream.omitField(Owner.class, "item");
+        assertFalse(mapper.shouldSerializeMember(Owner.class, "item"));
+    }
+
+    public void testAutodetectedAnnotationsFlushCachedLookups() {
+        XStream xstream = new XStream();
+        xstream.autodetectAnnotations(true);
+        Mapper mapper = xstream.getMapper();
+        assertEquals("name", mapper.serializedMember(Item.class, "name"));
+
+        // processing the owner detects the annotations of its field types
+        assertEquals(Owner.class.getName(), mapper.serializedClass(Owner.class));
+        assertEquals("label", mapper.serializedMember(Item.class, "name"));
+    }
+
+    static class Owner {
+        Item item;
+    }
+
+    static class Item {
+        @XStreamAlias("label")
+        String name;
+    }
+}
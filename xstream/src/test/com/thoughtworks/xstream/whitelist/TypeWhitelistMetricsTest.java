@@ -0,0 +1,150 @@
+package com.thoughtworks.xstream.whitelist;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link TypeWhitelistMetrics}.
+ */
+public class TypeWhitelistMetricsTest
+{
+  private TypeWhitelist whitelist;
+
+  private TypeWhitelistMetrics underTest;
+
+  @Before
+  public void setUp() throws Exception {
+    whitelist = new TypeWhitelist();
+    underTest = new TypeWhitelistMetrics(2, 10);
+    whitelist.setListener(underTest);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    underTest.unregister();
+    TypeWhitelist.allowAllProperty.remove();
+  }
+
+  @Test
+  public void countsByReason() {
+    whitelist.allow()
+        .types("test.Foo")
+        .packages("test2")
+        .patterns(".*DTO", ".*VO")
+        .apply();
+
+    assertThat(whitelist.isAllowed("test.Foo"), is(true));
+    assertThat(whitelist.isAllowed("test2.A"), is(true));
+    assertThat(whitelist.isAllowed("test3.FooDTO"), is(true));
+    assertThat(whitelist.isAllowed("test3.FooVO"), is(true));
+    assertThat(whitelist.isAllowed("test3.BarVO"), is(true));
+    assertThat(whitelist.isAllowed("test3.Baz"), is(false));
+
+    assertThat(underTest.getAllowedTypeCount(), is(1L));
+    assertThat(underTest.getAllowedPackageCount(), is(1L));
+    assertThat(underTest.getAllowedPatternCount(), is(3L));
+    assertThat(underTest.getDeniedCount(), is(1L));
+    assertThat(underTest.getAllowedAllCount(), is(0L));
+
+    Map<String, Long> patterns = underTest.getAllowedPatternCounts();
+    assertThat(patterns, hasEntry(".*DTO", 1L));
+    assertThat(patterns, hasEntry(".*VO", 2L));
+    assertThat(patterns.keySet(), contains(".*VO", ".*DTO"));
+  }
+
+  @Test
+  public void patternAttributionWithGroups() {
+    whitelist.allowPattern("^(org|com)\\.foo\\..*", "^(org|com)\\.bar\\..*");
+
+    whitelist.isAllowed("org.bar.A");
+    whitelist.isAllowed("com.bar.A");
+
+    assertThat(underTest.getAllowedPatternCounts().keySet(), contains("^(org|com)\\.bar\\..*"));
+  }
+
+  @Test
+  public void countsCacheHitsAndMisses() {
+    whitelist.allowType("test.Foo");
+
+    whitelist.isAllowed("test.Foo");
+    whitelist.isAllowed("test.Foo");
+    whitelist.isAllowed("test.Bar");
+    whitelist.isAllowed("test.Bar");
+    whitelist.isAllowed("test.Bar");
+
+    assertThat(underTest.getCacheMissCount(), is(2L));
+    assertThat(underTest.getCacheHitCount(), is(3L));
+  }
+
+  @Test
+  public void topCheckedTypesBounded() {
+    whitelist.isAllowed("test.A");
+    whitelist.isAllowed("test.B");
+    whitelist.isAllowed("test.B");
+    whitelist.isAllowed("test.C");
+
+    Map<String, Long> top = underTest.getTopCheckedTypes();
+    assertThat(top.keySet(), contains("test.B", "test.A"));
+    assertThat(top, hasEntry("test.B", 2L));
+    assertThat(underTest.getDeniedCount(), is(4L));
+  }
+
+  @Test
+  public void frequentUntrackedTypeReplacesLeastChecked() {
+    whitelist.isAllowed("test.A");
+    whitelist.isAllowed("test.B");
+    whitelist.isAllowed("test.B");
+    for (int i = 0; i < 1000; i++) {
+      whitelist.isAllowed("test.C");
+    }
+
+    Map<String, Long> top = underTest.getTopCheckedTypes();
+    assertThat(top.keySet(), contains("test.C", "test.B"));
+  }
+
+  @Test
+  public void countsAllowAll() {
+    TypeWhitelist.allowAllProperty.set(true);
+    whitelist = new TypeWhitelist();
+    whitelist.setListener(underTest);
+
+    whitelist.isAllowed("test.Foo");
+    whitelist.ensureAllowed("test.Foo");
+
+    assertThat(underTest.getAllowedAllCount(), is(2L));
+    assertThat(underTest.getCacheHitCount(), is(0L));
+    assertThat(underTest.getCacheMissCount(), is(0L));
+  }
+
+  @Test
+  public void reset() {
+    whitelist.isAllowed("test.Foo");
+    underTest.reset();
+
+    assertThat(underTest.getDeniedCount(), is(0L));
+    assertThat(underTest.getCacheMissCount(), is(0L));
+    assertThat(underTest.getTopCheckedTypes().size(), is(0));
+  }
+
+  @Test
+  public void registerMBean() throws Exception {
+    whitelist.isAllowed("test.Foo");
+
+    ObjectName name = underTest.register("test");
+    assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "DeniedCount"), is((Object) 1L));
+
+    underTest.unregister();
+    assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(name), is(false));
+  }
+}
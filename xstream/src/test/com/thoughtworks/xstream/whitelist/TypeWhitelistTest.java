@@ -1,6 +1,7 @@
 package com.thoughtworks.xstream.whitelist;
 
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import com.thoughtworks.xstream.whitelist.TypeWhitelist.TypeNotAllowedException;
 import org.junit.After;
@@ -10,6 +11,9 @@ import org.junit.Test;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -31,6 +35,7 @@ public class TypeWhitelistTest
     TypeWhitelist.allowedPackagesProperty.remove();
     TypeWhitelist.allowedPatternsProperty.remove();
     TypeWhitelist.allowAllProperty.remove();
+    TypeWhitelist.deniedWarningIntervalProperty.remove();
   }
 
   @Test
@@ -165,4 +170,190 @@ public class TypeWhitelistTest
     underTest.allowPackage("test");
     underTest.ensureAllowed("test.Foo");
   }
+
+  @Test
+  public void allowPackageDoesNotMatchPrefixes() {
+    underTest.allowPackage("test.foo");
+    assertThat(underTest.isAllowed("test.foo.A"), is(true));
+    assertThat(underTest.isAllowed("test.fo.A"), is(false));
+    assertThat(underTest.isAllowed("test.foobar.A"), is(false));
+    assertThat(underTest.isAllowed("test.A"), is(false));
+  }
+
+  @Test
+  public void allowAfterDenyInvalidatesCachedVerdict() {
+    assertThat(underTest.isAllowed("test.Foo"), is(false));
+    underTest.allowType("test.Foo");
+    assertThat(underTest.isAllowed("test.Foo"), is(true));
+
+    assertThat(underTest.isAllowed("test2.Foo"), is(false));
+    underTest.allowPackage("test2");
+    assertThat(underTest.isAllowed("test2.Foo"), is(true));
+
+    assertThat(underTest.isAllowed("test3.FooDTO"), is(false));
+    underTest.allowPattern(".*DTO");
+    assertThat(underTest.isAllowed("test3.FooDTO"), is(true));
+  }
+
+  @Test
+  public void allowPatternWithFlagsAndBackReferences() {
+    underTest.allowPattern(Pattern.compile("test\\..*dto", Pattern.CASE_INSENSITIVE));
+    underTest.allowPattern("(\\w+)\\.\\1");
+    underTest.allowPattern("^other\\..*");
+
+    assertThat(underTest.isAllowed("test.FooDTO"), is(true));
+    assertThat(underTest.isAllowed("foo.foo"), is(true));
+    assertThat(underTest.isAllowed("other.Foo"), is(true));
+
+    assertThat(underTest.isAllowed("foo.bar"), is(false));
+    assertThat(underTest.isAllowed("test.Foo"), is(false));
+  }
+
+  @Test
+  public void allowPatternsWithSameNamedGroup() {
+    underTest.allowPattern("(?<pkg>test)\\..*DTO");
+    underTest.allowPattern("(?<pkg>\\w+)\\.\\k<pkg>");
+    underTest.allowPattern("^other\\..*");
+
+    assertThat(underTest.isAllowed("test.FooDTO"), is(true));
+    assertThat(underTest.isAllowed("foo.foo"), is(true));
+    assertThat(underTest.isAllowed("other.Foo"), is(true));
+
+    assertThat(underTest.isAllowed("foo.bar"), is(false));
+    assertThat(underTest.isAllowed("test.Foo"), is(false));
+  }
+
+  @Test
+  public void allowPatternsWithUnterminatedQuote() {
+    underTest.allowPattern("test\\..*DTO");
+    underTest.allowPattern("\\Qother.Foo");
+    underTest.allowPattern("(?x) third\\.Foo # comment");
+    underTest.allowPattern("^last\\..*");
+
+    assertThat(underTest.isAllowed("test.FooDTO"), is(true));
+    assertThat(underTest.isAllowed("other.Foo"), is(true));
+    assertThat(underTest.isAllowed("third.Foo"), is(true));
+    assertThat(underTest.isAllowed("last.Foo"), is(true));
+
+    assertThat(underTest.isAllowed("otherXFoo"), is(false));
+    assertThat(underTest.isAllowed("test.Foo"), is(false));
+  }
+
+  @Test
+  public void allowBulk() {
+    underTest.allow()
+        .types("test.Foo", "test.Bar")
+        .types(String.class)
+        .packages("test2")
+        .patterns("org\\.sonatype\\..*DTO")
+        .apply();
+
+    assertThat(underTest.isAllowed("test.Foo"), is(true));
+    assertThat(underTest.isAllowed("test.Bar"), is(true));
+    assertThat(underTest.isAllowed("java.lang.String"), is(true));
+    assertThat(underTest.isAllowed("test2.A"), is(true));
+    assertThat(underTest.isAllowed("org.sonatype.foo.FooDTO"), is(true));
+    assertThat(underTest.isAllowed("test.Baz"), is(false));
+
+    assertThat(underTest.getAllowedTypes(), hasSize(3));
+    assertThat(underTest.getAllowedPackages(), contains("test2"));
+    assertThat(underTest.getAllowedPatterns(), hasSize(1));
+  }
+
+  @Test
+  public void allowBulkNotAppliedUntilPublished() {
+    TypeWhitelist.Allow allow = underTest.allow().types("test.Foo");
+    assertThat(underTest.isAllowed("test.Foo"), is(false));
+    allow.apply();
+    assertThat(underTest.isAllowed("test.Foo"), is(true));
+  }
+
+  @Test
+  public void concurrentAllowAndCheck() throws Exception {
+    final int count = 200;
+    Thread writer = new Thread()
+    {
+      @Override
+      public void run() {
+        for (int i = 0; i < count; i++) {
+          underTest.allowType("test.Type" + i);
+          underTest.allowPackage("test" + i);
+        }
+      }
+    };
+    Thread reader = new Thread()
+    {
+      @Override
+      public void run() {
+        for (int i = 0; i < count; i++) {
+          underTest.isAllowed("test.Type" + i);
+          underTest.isAllowed("test" + i + ".A");
+        }
+      }
+    };
+    writer.start();
+    reader.start();
+    writer.join();
+    reader.join();
+
+    assertThat(underTest.getAllowedTypes(), hasSize(count));
+    assertThat(underTest.getAllowedPackages(), hasSize(count));
+    for (int i = 0; i < count; i++) {
+      assertThat(underTest.isAllowed("test.Type" + i), is(true));
+      assertThat(underTest.isAllowed("test" + i + ".A"), is(true));
+    }
+  }
+
+  @Test
+  public void ensureAllowedThrowsNewExceptionForEachDenial() {
+    TypeNotAllowedException first = null;
+    try {
+      underTest.ensureAllowed("test.Foo");
+      fail();
+    }
+    catch (TypeNotAllowedException e) {
+      first = e;
+      e.initCause(new RuntimeException());
+    }
+    try {
+      underTest.ensureAllowed("test.Foo");
+      fail();
+    }
+    catch (TypeNotAllowedException e) {
+      assertThat(e, not(sameInstance(first)));
+      assertThat(e.getCause(), nullValue());
+      assertThat(e.getStackTrace().length, is(0));
+    }
+  }
+
+  @Test
+  public void constructedExceptionHasStackTrace() {
+    TypeNotAllowedException e = new TypeNotAllowedException("test.Foo");
+    assertThat(e.getStackTrace().length > 0, is(true));
+  }
+
+  @Test
+  public void ensureAllowedAfterDenyAndAllow() {
+    try {
+      underTest.ensureAllowed("test.Foo");
+      fail();
+    }
+    catch (TypeNotAllowedException e) {
+      // expected
+    }
+
+    underTest.allowPackage("test");
+    underTest.ensureAllowed("test.Foo");
+  }
+
+  @Test
+  public void denialWarningsRateLimited() {
+    TypeDenial denial = new TypeDenial("test.Foo");
+    assertThat(denial.shouldWarn(1000, 100), is(true));
+    assertThat(denial.shouldWarn(1050, 100), is(false));
+    assertThat(denial.shouldWarn(1099, 100), is(false));
+    assertThat(denial.drainSuppressed(), is(2));
+    assertThat(denial.shouldWarn(1100, 100), is(true));
+    assertThat(denial.drainSuppressed(), is(0));
+  }
 }